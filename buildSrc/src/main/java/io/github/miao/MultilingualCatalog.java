@@ -0,0 +1,104 @@
+package io.github.miao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列式多语言目录：
+ * - 所有语言共享一张 key 表（每个 key 只保留一个 String 实例，按首次出现顺序分配序号）
+ * - 每种语言一个按 key 序号索引的 value 数组，缺失的 key 对应 null
+ * 相比每种语言一个 Map&lt;String, String&gt;，避免了 key 字符串和 Entry 对象在各语言间的重复。
+ */
+public class MultilingualCatalog {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private int keyCount;
+    private final Map<String, String[]> localeValues = new LinkedHashMap<>();
+    private final Map<String, Map<String, Integer>> reverseIndexes = new HashMap<>();
+
+    /**
+     * 返回 key 的序号，不存在时分配新序号
+     */
+    public int intern(String key) {
+        Integer ordinal = keyIndex.get(key);
+        if (ordinal != null) return ordinal;
+        if (keyCount == keys.length) keys = Arrays.copyOf(keys, keyCount * 2);
+        keys[keyCount] = key;
+        keyIndex.put(key, keyCount);
+        return keyCount++;
+    }
+
+    /**
+     * @return key 的序号，不存在时返回 -1
+     */
+    public int ordinalOf(String key) {
+        Integer ordinal = keyIndex.get(key);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String keyAt(int ordinal) {
+        return keys[ordinal];
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    public void put(String locale, String key, String value) {
+        int ordinal = intern(key);
+        String[] values = localeValues.get(locale);
+        if (values == null || ordinal >= values.length) {
+            values = values == null ? new String[keys.length] : Arrays.copyOf(values, keys.length);
+            localeValues.put(locale, values);
+        }
+        values[ordinal] = value;
+        reverseIndexes.remove(locale);
+    }
+
+    public String get(String locale, String key) {
+        int ordinal = ordinalOf(key);
+        return ordinal < 0 ? null : get(locale, ordinal);
+    }
+
+    public String get(String locale, int ordinal) {
+        String[] values = localeValues.get(locale);
+        return values == null || ordinal >= values.length ? null : values[ordinal];
+    }
+
+    public boolean contains(String locale, String key) {
+        return get(locale, key) != null;
+    }
+
+    public boolean hasLocale(String locale) {
+        return localeValues.containsKey(locale);
+    }
+
+    public Set<String> locales() {
+        return Collections.unmodifiableSet(localeValues.keySet());
+    }
+
+    /**
+     * 按文本反查 key（文本相同时取序号最小、即最先出现的 key），反向索引按需构建并缓存
+     * @return key；找不到时返回 null
+     */
+    public String findKeyByValue(String locale, String value) {
+        Map<String, Integer> reverse = reverseIndexes.computeIfAbsent(locale, l -> {
+            Map<String, Integer> index = new HashMap<>();
+            String[] values = localeValues.get(l);
+            if (values != null) {
+                for (int i = 0; i < Math.min(values.length, keyCount); i++) {
+                    if (values[i] != null) index.putIfAbsent(values[i], i);
+                }
+            }
+            return index;
+        });
+        Integer ordinal = reverse.get(value);
+        return ordinal == null ? null : keys[ordinal];
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.miao;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 单元格解码：把任意类型的单元格转为文本，翻译方在单元格中输入数字、布尔值或公式时不再导致导入失败。
+ * - 文本单元格直接取值；数字（含日期）按单元格的数据格式通过复用的 DataFormatter 格式化，与 Excel 中显示的一致
+ * - 公式单元格取缓存的计算结果，不重新计算；错误值（#N/A 等）与读取异常记为诊断信息，单元格视为缺失
+ * - 按列缓存最近一次的单元格样式及其数据格式，同一列样式相同时不再查询样式表
+ *
+ * 工作表在同一线程中按顺序读取，每个工作表创建一个实例；DataFormatter 与列缓存只在该实例内复用，实例本身不是线程安全的。
+ */
+final class MultilingualCellDecoder {
+    private final String sheetName;
+    private final DataFormatter formatter = new DataFormatter(Locale.ROOT);
+    private final List<String> diagnostics = new ArrayList<>();
+    // 按列缓存：样式序号 -> 数据格式
+    private int[] cachedStyle = new int[0];
+    private short[] cachedFormatIndex = new short[0];
+    private String[] cachedFormatString = new String[0];
+    private int typedCount;
+
+    MultilingualCellDecoder(String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    /**
+     * @return 单元格文本；空单元格为 ""，错误值或读取失败时为 null（并记录诊断信息）
+     */
+    String decode(Cell cell, int rowNum, int col) {
+        try {
+            CellType type = cell.getCellType();
+            if (type == CellType.FORMULA) type = cell.getCachedFormulaResultType();
+            switch (type) {
+                case STRING:
+                    return cell.getStringCellValue();
+                case BLANK:
+                    return "";
+                case NUMERIC:
+                    typedCount++;
+                    return formatNumber(cell, col);
+                case BOOLEAN:
+                    typedCount++;
+                    return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+                case ERROR:
+                    diagnostics.add(describe(rowNum, col, "error value " + FormulaError.forInt(cell.getErrorCellValue()).getString()));
+                    return null;
+                default:
+                    diagnostics.add(describe(rowNum, col, "unsupported cell type " + type));
+                    return null;
+            }
+        } catch (RuntimeException e) {
+            diagnostics.add(describe(rowNum, col, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * @return 解码过程中的诊断信息（行列号从 1 开始）
+     */
+    List<String> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * @return 按数字 / 布尔值解码的单元格数量
+     */
+    int getTypedCount() {
+        return typedCount;
+    }
+
+    private String formatNumber(Cell cell, int col) {
+        CellStyle style = cell.getCellStyle();
+        if (style == null) return formatter.formatRawCellContents(cell.getNumericCellValue(), 0, "General");
+        if (col >= cachedStyle.length) {
+            int size = Math.max(col + 1, cachedStyle.length * 2);
+            int oldSize = cachedStyle.length;
+            cachedStyle = Arrays.copyOf(cachedStyle, size);
+            Arrays.fill(cachedStyle, oldSize, size, -1);
+            cachedFormatIndex = Arrays.copyOf(cachedFormatIndex, size);
+            cachedFormatString = Arrays.copyOf(cachedFormatString, size);
+        }
+        int styleIndex = style.getIndex();
+        if (cachedStyle[col] != styleIndex) {
+            cachedStyle[col] = styleIndex;
+            cachedFormatIndex[col] = style.getDataFormat();
+            cachedFormatString[col] = style.getDataFormatString();
+        }
+        return formatter.formatRawCellContents(cell.getNumericCellValue(), cachedFormatIndex[col], cachedFormatString[col]);
+    }
+
+    private String describe(int rowNum, int col, String message) {
+        return String.format("sheet %s, row %d, column %d: %s", sheetName, rowNum + 1, col + 1, message);
+    }
+}
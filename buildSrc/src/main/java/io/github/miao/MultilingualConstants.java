@@ -1,5 +1,7 @@
 package io.github.miao;
 
+import java.util.List;
+
 /**
  * 多语言插件常量类
  */
@@ -20,11 +22,31 @@ public class MultilingualConstants {
     public static final String INSERTION_MODE_SKIP_NEW_KEY = "skipNewKey";
     public static final String INSERTION_MODE_INSERT_NEW_KEY = "insertNewKey";
     
+    // 导出工作表拆分规则
+    public static final String SHEET_RULE_NONE = "none";
+    public static final String SHEET_RULE_PREFIX = "prefix";
+    public static final String SHEET_RULE_FILE = "file";
+    public static final String DEFAULT_SHEET_NAME = "Sheet1";
+    
+    // 导入时的占位符校验方式
+    public static final String PLACEHOLDER_CHECK_OFF = "off";
+    public static final String PLACEHOLDER_CHECK_WARN = "warn";
+    public static final String PLACEHOLDER_CHECK_SKIP = "skip";
+    public static final String PLACEHOLDER_CHECK_ERROR = "error";
+    
+    // 导入时对过时行（导出后基准文本已变化）的处理方式
+    public static final String STALE_ROWS_WARN = "warn";
+    public static final String STALE_ROWS_SKIP = "skip";
+    
     // 文件路径
     public static final String STRINGS_XML = "strings.xml";
     public static final String VALUES_PREFIX = "values-";
     public static final String KEY_DIR_NAME = "Key";
     
+    // 导出工作簿中隐藏的行哈希列（key + 基准文本）表头，导入时不作为语言列；
+    // 导出时写为 "#hash:<计算哈希的基准目录>"（如 #hash:values），导入时用同一目录的文本校验
+    public static final String HASH_COLUMN_HEADER = "#hash";
+    
     // 日志标签
     public static final String LOG_TAG_GENERATE_EXCEL = "[generateExcel]";
     public static final String LOG_TAG_GENERATE_TRANSLATIONS = "[generateTranslations]";
@@ -33,6 +55,19 @@ public class MultilingualConstants {
     public static final String PLUGIN_ID = "io.github.miao.multilingual";
     public static final String PLUGIN_IMPLEMENTATION_CLASS = "io.github.miao.MultilingualPlugin";
     
+    // Apache POI：只在导出 / 导入执行时通过隔离的 Worker 类加载器加载，不进入构建脚本类路径
+    public static final String POI_CONFIGURATION = "multilingualPoi";
+    public static final String POI_VERSION = "5.2.3";
+    
+    // 导出 / 导入引擎读取的参数名（在 Worker 中执行前按 -P > 扩展配置 > 任务属性 解析）
+    public static final List<String> EXPORT_OPTIONS = List.of(
+            "outputResDir", "exportLineDir", "baselineDir", "exportDir", "exportFilePattern",
+            "exportIncludeLanguages", "exportSheetRule", "defaultLanguage");
+    public static final List<String> IMPORT_OPTIONS = List.of(
+            "watch", "watchDebounceMs", "excelFilePath", "defaultLanguage", "baselineDir", "outputResDir",
+            "importMode", "comparisonBaseDir", "insertionMode", "placeholderCheck", "staleRows", "resume",
+            "useSnapshot", "snapshotFile");
+    
     private MultilingualConstants() {
         // 工具类，不允许实例化
     }
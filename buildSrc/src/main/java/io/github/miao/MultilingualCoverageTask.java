@@ -0,0 +1,277 @@
+package io.github.miao;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 翻译覆盖率任务：并行扫描所有语言目录，以基准目录的 key 为行、语言为列建立位图矩阵，
+ * 输出每种语言缺失（missing）、多余（extra，基准中已不存在）、空值（empty）以及与基准文本相同（sameAsBaseline，疑似未翻译）的 key，
+ * 报告写入 build/reports/multilingual/coverage/ 下的 coverage.json 与 index.html
+ */
+public class MultilingualCoverageTask extends DefaultTask {
+    // 只统计语言目录（如 values-en、values-zh-rCN、values-b+sr+Latn），忽略 values-night、values-v21 等
+    private static final Pattern LOCALE_QUALIFIER = Pattern.compile("[a-z]{2,3}(-r[A-Z]{2})?|b\\+[A-Za-z0-9+]+");
+    private static final String REPORT_DIR = "reports/multilingual/coverage";
+
+    @Input public final Property<String> baselineDir = getProject().getObjects().property(String.class);
+
+    public Property<String> getBaselineDir() {return baselineDir;}
+
+    private MultilingualMetrics metrics;
+
+    @TaskAction
+    public void generateCoverage() {
+        metrics = new MultilingualMetrics("translationCoverage");
+        try {
+            runGenerateCoverage();
+        } finally {
+            metrics.report(new MultilingualGradleEnvironment(this, Map.of("baselineDir", baselineDir)));
+        }
+    }
+
+    /**
+     * 单个语言的覆盖情况，位按基准 key 序号索引
+     */
+    private static final class LocaleCoverage {
+        final String dirName;
+        final BitSet present = new BitSet();
+        final BitSet empty = new BitSet();
+        final BitSet sameAsBaseline = new BitSet();
+        final List<String> extra = new ArrayList<>();
+
+        LocaleCoverage(String dirName) {
+            this.dirName = dirName;
+        }
+
+        String locale() {
+            return dirName.substring(MultilingualConstants.VALUES_PREFIX.length());
+        }
+    }
+
+    private void runGenerateCoverage() {
+        getLogger().lifecycle("[translationCoverage] start");
+
+        // 优先级：-P参数 > extension配置 > task属性 > 默认值
+        String effectiveBaselineDir = null;
+        Object cliBaselineDir = getProject().findProperty("baselineDir");
+        if (cliBaselineDir instanceof String s && !s.isBlank()) effectiveBaselineDir = s;
+        if (effectiveBaselineDir == null) {
+            MultilingualExtension ext = getProject().getRootProject().getExtensions().findByType(MultilingualExtension.class);
+            if (ext != null && ext.baselineDir.isPresent()) effectiveBaselineDir = ext.baselineDir.get();
+        }
+        if (effectiveBaselineDir == null && baselineDir.isPresent()) effectiveBaselineDir = baselineDir.get();
+        if (effectiveBaselineDir == null) effectiveBaselineDir = MultilingualConstants.DEFAULT_BASELINE_DIR;
+        final String baselineDirName = effectiveBaselineDir;
+
+        // 处理 outputResDir（可选）；未指定时覆盖所有源集的 res 目录
+        List<File> resDirs;
+        Object cliOutputResDir = getProject().findProperty("outputResDir");
+        if (cliOutputResDir instanceof String s && !s.isBlank() && new File(s).isDirectory()) {
+            resDirs = Collections.singletonList(new File(s));
+        } else {
+            resDirs = MultilingualGradleEnvironment.findAndroidResDirectories(getProject(), getLogger());
+        }
+
+        File buildDir = getProject().getLayout().getBuildDirectory().getAsFile().get();
+        MultilingualResourceIndex resourceIndex = metrics.call("scanResources", () -> MultilingualResourceIndex.scan(resDirs,
+                name -> name.equals(baselineDirName) || isLocaleDir(name), MultilingualUtils.getResourceIndexCacheFile(buildDir)));
+        metrics.add(MultilingualMetrics.COUNTER_FILES_PARSED, resourceIndex.getParsedCount());
+        if (!resourceIndex.hasStrings(baselineDirName)) {
+            throw new GradleException("No string resources found in baseline directory: " + baselineDirName);
+        }
+
+        // 基准 key 表：key -> 序号
+        List<String> keys = new ArrayList<>();
+        List<String> baselineValues = new ArrayList<>();
+        Map<String, Integer> keyIndex = new HashMap<>();
+        resourceIndex.forEachString(baselineDirName, (key, value) -> {
+            keyIndex.put(key, keys.size());
+            keys.add(key);
+            baselineValues.add(value);
+        });
+
+        List<String> localeDirs = new ArrayList<>();
+        for (String dirName : resourceIndex.stringDirs()) {
+            if (!dirName.equals(baselineDirName) && isLocaleDir(dirName)) localeDirs.add(dirName);
+        }
+        Collections.sort(localeDirs);
+
+        // 各语言并行计算（只读访问 resourceIndex 与 key 表）
+        List<LocaleCoverage> coverages = metrics.call("computeMatrix", () -> localeDirs.parallelStream().map(dirName -> {
+            LocaleCoverage c = new LocaleCoverage(dirName);
+            resourceIndex.forEachString(dirName, (key, value) -> {
+                Integer ordinal = keyIndex.get(key);
+                if (ordinal == null) {
+                    c.extra.add(key);
+                    return;
+                }
+                c.present.set(ordinal);
+                if (value.trim().isEmpty()) c.empty.set(ordinal);
+                else if (value.equals(baselineValues.get(ordinal))) c.sameAsBaseline.set(ordinal);
+            });
+            return c;
+        }).toList());
+        metrics.add(MultilingualMetrics.COUNTER_ROWS, keys.size());
+        metrics.add(MultilingualMetrics.COUNTER_CELLS, (long) keys.size() * coverages.size());
+
+        File reportDir = new File(buildDir, REPORT_DIR);
+        try {
+            metrics.run("writeReports", () -> {
+                Files.createDirectories(reportDir.toPath());
+                Files.write(new File(reportDir, "coverage.json").toPath(),
+                        toJson(baselineDirName, keys, coverages).getBytes(StandardCharsets.UTF_8));
+                Files.write(new File(reportDir, "index.html").toPath(),
+                        toHtml(baselineDirName, keys, coverages).getBytes(StandardCharsets.UTF_8));
+                metrics.add(MultilingualMetrics.COUNTER_FILES_WRITTEN, 2);
+            });
+        } catch (IOException e) {
+            throw new GradleException("Failed to write coverage report: " + e.getMessage(), e);
+        }
+
+        int totalMissing = 0;
+        getLogger().lifecycle("[translationCoverage] baseline {}: {} keys, {} locales", baselineDirName, keys.size(), coverages.size());
+        for (LocaleCoverage c : coverages) {
+            int missing = keys.size() - c.present.cardinality();
+            totalMissing += missing;
+            getLogger().lifecycle("  {} {}% (missing {}, empty {}, sameAsBaseline {}, extra {})", c.locale(),
+                    percent(c.present.cardinality() - c.empty.cardinality(), keys.size()), missing,
+                    c.empty.cardinality(), c.sameAsBaseline.cardinality(), c.extra.size());
+        }
+        File rootDir = getProject().getRootProject().getProjectDir();
+        getLogger().lifecycle("[translationCoverage] Report: {}", MultilingualUtils.getRelativePath(rootDir, new File(reportDir, "index.html")));
+
+        // CI 中可用 -PcoverageFailOnMissing=true 在存在缺失 key 时让构建失败
+        Object failOnMissing = getProject().findProperty("coverageFailOnMissing");
+        if (totalMissing > 0 && failOnMissing != null && Boolean.parseBoolean(failOnMissing.toString())) {
+            throw new GradleException("Translation coverage check failed: " + totalMissing + " missing keys");
+        }
+    }
+
+    static boolean isLocaleDir(String dirName) {
+        return dirName.startsWith(MultilingualConstants.VALUES_PREFIX)
+                && LOCALE_QUALIFIER.matcher(dirName.substring(MultilingualConstants.VALUES_PREFIX.length())).matches();
+    }
+
+    private static String percent(int count, int total) {
+        return String.format(Locale.ROOT, "%.1f", total == 0 ? 100d : count * 100d / total);
+    }
+
+    private String toJson(String baselineDirName, List<String> keys, List<LocaleCoverage> coverages) {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\n");
+        sb.append("  \"baselineDir\": ").append(MultilingualUtils.toJsonString(baselineDirName)).append(",\n");
+        sb.append("  \"keys\": ").append(keys.size()).append(",\n");
+        sb.append("  \"locales\": [");
+        for (int i = 0; i < coverages.size(); i++) {
+            LocaleCoverage c = coverages.get(i);
+            BitSet missing = new BitSet(keys.size());
+            missing.set(0, keys.size());
+            missing.andNot(c.present);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"locale\": ").append(MultilingualUtils.toJsonString(c.locale()))
+                    .append(", \"dir\": ").append(MultilingualUtils.toJsonString(c.dirName))
+                    .append(", \"translated\": ").append(c.present.cardinality() - c.empty.cardinality())
+                    .append(", \"coverage\": ").append(percent(c.present.cardinality() - c.empty.cardinality(), keys.size()))
+                    .append(",\n      \"missing\": ").append(jsonKeys(keys, missing))
+                    .append(",\n      \"empty\": ").append(jsonKeys(keys, c.empty))
+                    .append(",\n      \"sameAsBaseline\": ").append(jsonKeys(keys, c.sameAsBaseline))
+                    .append(",\n      \"extra\": ").append(jsonList(c.extra))
+                    .append("}");
+        }
+        sb.append(coverages.isEmpty() ? "]\n" : "\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String jsonKeys(List<String> keys, BitSet bits) {
+        List<String> selected = new ArrayList<>();
+        for (int k = bits.nextSetBit(0); k >= 0; k = bits.nextSetBit(k + 1)) selected.add(keys.get(k));
+        return jsonList(selected);
+    }
+
+    private static String jsonList(List<String> values) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(MultilingualUtils.toJsonString(values.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * HTML 报告：汇总表 + 存在问题的 key 的矩阵（完整覆盖的 key 不展开，控制报告体积）
+     */
+    private String toHtml(String baselineDirName, List<String> keys, List<LocaleCoverage> coverages) {
+        StringBuilder sb = new StringBuilder(8192);
+        sb.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Translation coverage</title>\n<style>")
+                .append("body{font-family:sans-serif;font-size:13px}table{border-collapse:collapse;margin-bottom:24px}")
+                .append("td,th{border:1px solid #ccc;padding:2px 6px}th{background:#eee}")
+                .append(".ok{background:#c8e6c9}.missing{background:#ffcdd2}.empty{background:#fff9c4}.same{background:#e0e0e0}")
+                .append("</style></head><body>\n");
+        sb.append("<h2>Translation coverage</h2>\n<p>Baseline <code>").append(html(baselineDirName)).append("</code>: ")
+                .append(keys.size()).append(" keys, ").append(coverages.size()).append(" locales</p>\n");
+
+        sb.append("<table><tr><th>Locale</th><th>Coverage</th><th>Missing</th><th>Empty</th><th>Same as baseline</th><th>Extra</th></tr>\n");
+        for (LocaleCoverage c : coverages) {
+            sb.append("<tr><td>").append(html(c.locale())).append("</td><td>")
+                    .append(percent(c.present.cardinality() - c.empty.cardinality(), keys.size())).append("%</td><td>")
+                    .append(keys.size() - c.present.cardinality()).append("</td><td>")
+                    .append(c.empty.cardinality()).append("</td><td>")
+                    .append(c.sameAsBaseline.cardinality()).append("</td><td>")
+                    .append(c.extra.size()).append("</td></tr>\n");
+        }
+        sb.append("</table>\n");
+
+        sb.append("<h3>Keys with issues</h3>\n<table><tr><th>Key</th>");
+        for (LocaleCoverage c : coverages) sb.append("<th>").append(html(c.locale())).append("</th>");
+        sb.append("</tr>\n");
+        for (int k = 0; k < keys.size(); k++) {
+            boolean issue = false;
+            for (LocaleCoverage c : coverages) {
+                if (!c.present.get(k) || c.empty.get(k) || c.sameAsBaseline.get(k)) {
+                    issue = true;
+                    break;
+                }
+            }
+            if (!issue) continue;
+            sb.append("<tr><td>").append(html(keys.get(k))).append("</td>");
+            for (LocaleCoverage c : coverages) {
+                if (!c.present.get(k)) sb.append("<td class=\"missing\">missing</td>");
+                else if (c.empty.get(k)) sb.append("<td class=\"empty\">empty</td>");
+                else if (c.sameAsBaseline.get(k)) sb.append("<td class=\"same\">same</td>");
+                else sb.append("<td class=\"ok\">✓</td>");
+            }
+            sb.append("</tr>\n");
+        }
+        sb.append("</table>\n");
+
+        sb.append("<h3>Extra keys (not in baseline)</h3>\n<table><tr><th>Locale</th><th>Keys</th></tr>\n");
+        for (LocaleCoverage c : coverages) {
+            if (c.extra.isEmpty()) continue;
+            sb.append("<tr><td>").append(html(c.locale())).append("</td><td>")
+                    .append(html(String.join(", ", c.extra))).append("</td></tr>\n");
+        }
+        sb.append("</table>\n</body></html>\n");
+        return sb.toString();
+    }
+
+    private static String html(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.miao;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV / TSV 读写（RFC 4180 引号规则），用于不经过 POI 的快速导入导出：
+ * - 字段包含分隔符、引号或换行时用双引号包裹，字段内的双引号写为两个双引号
+ * - 读取时流式解析，支持引号内换行、CRLF / LF 行尾以及 UTF-8 BOM
+ */
+public class MultilingualDelimitedFormat {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private MultilingualDelimitedFormat() {
+    }
+
+    /**
+     * @return 文件是否为 .csv / .tsv
+     */
+    public static boolean isDelimited(File file) {
+        return delimiterFor(file) != 0;
+    }
+
+    /**
+     * @return 文件对应的分隔符，.csv 为逗号，.tsv 为制表符，其他格式返回 0
+     */
+    public static char delimiterFor(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return ',';
+        if (name.endsWith(".tsv")) return '\t';
+        return 0;
+    }
+
+    /**
+     * 读取整个文件为一个工作表（首行为表头）
+     */
+    public static MultilingualSheetReader.SheetData read(File file) {
+        char delimiter = delimiterFor(file);
+        if (delimiter == 0) throw new MultilingualException("Unsupported delimited file: " + file.getAbsolutePath());
+        List<MultilingualSheetReader.RowData> rows = new ArrayList<>();
+        String[] header = null;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Parser parser = new Parser(reader, delimiter);
+            String[] record;
+            int rowNum = 0;
+            while ((record = parser.next()) != null) {
+                if (rowNum == 0) header = record;
+                else rows.add(new MultilingualSheetReader.RowData(rowNum, record));
+                rowNum++;
+            }
+        } catch (IOException e) {
+            throw new MultilingualException("Failed to read " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return new MultilingualSheetReader.SheetData(file.getName(), 0, header, rows);
+    }
+
+    /**
+     * 打开写入器，输出 UTF-8、CRLF 行尾
+     */
+    public static RowWriter open(File file) throws IOException {
+        char delimiter = delimiterFor(file);
+        if (delimiter == 0) throw new MultilingualException("Unsupported delimited file: " + file.getAbsolutePath());
+        return new RowWriter(new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), BUFFER_SIZE), delimiter);
+    }
+
+    /**
+     * 逐行写入器
+     */
+    public static final class RowWriter implements Closeable {
+        private final Writer out;
+        private final char delimiter;
+
+        RowWriter(Writer out, char delimiter) {
+            this.out = out;
+            this.delimiter = delimiter;
+        }
+
+        public void writeRow(List<String> cells) throws IOException {
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0) out.write(delimiter);
+                writeField(cells.get(i));
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null || value.isEmpty()) return;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            int start = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '"') {
+                    out.write(value, start, i - start + 1);
+                    out.write('"');
+                    start = i + 1;
+                }
+            }
+            out.write(value, start, value.length() - start);
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * 流式记录解析器：逐字符读取，一次返回一条记录
+     */
+    private static final class Parser {
+        private final Reader in;
+        private final char delimiter;
+        private final char[] buf = new char[BUFFER_SIZE];
+        private int pos;
+        private int len;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> record = new ArrayList<>();
+        private boolean first = true;
+
+        Parser(Reader in, char delimiter) {
+            this.in = in;
+            this.delimiter = delimiter;
+        }
+
+        private int read() throws IOException {
+            if (pos == len) {
+                len = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (len <= 0) {
+                    len = 0;
+                    return -1;
+                }
+            }
+            return buf[pos++];
+        }
+
+        private int peek() throws IOException {
+            int c = read();
+            if (c != -1) pos--;
+            return c;
+        }
+
+        /**
+         * @return 下一条记录；文件结束时返回 null
+         */
+        String[] next() throws IOException {
+            int c = read();
+            if (first) {
+                first = false;
+                if (c == '\uFEFF') c = read();
+            }
+            if (c == -1) return null;
+            record.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean fieldStart = true;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IOException("Unterminated quoted field");
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && fieldStart) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    fieldStart = true;
+                    c = read();
+                    continue;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') read();
+                    record.add(field.toString());
+                    return record.toArray(new String[0]);
+                } else {
+                    field.append((char) c);
+                }
+                fieldStart = false;
+                c = read();
+            }
+        }
+    }
+}
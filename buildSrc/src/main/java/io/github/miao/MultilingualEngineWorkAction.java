@@ -0,0 +1,162 @@
+package io.github.miao;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 在隔离的 Worker 类加载器中执行导出 / 导入引擎：类路径为插件本身 + multilingualPoi 配置（Apache POI），
+ * POI 只在任务实际执行时加载，不进入构建脚本类路径。
+ * 参数、目录与 res 目录在提交前由任务解析（见 {@link MultilingualGradleEnvironment#runEngine}），Worker 中不访问 Project
+ */
+public abstract class MultilingualEngineWorkAction implements WorkAction<MultilingualEngineWorkAction.Parameters> {
+    public static final String EXPORT = "export";
+    public static final String IMPORT = "import";
+
+    public interface Parameters extends WorkParameters {
+        /**
+         * @return {@link #EXPORT} 或 {@link #IMPORT}
+         */
+        Property<String> getEngine();
+
+        /**
+         * @return 已解析的参数值（参数名 -> 值），未配置的参数不包含
+         */
+        MapProperty<String, String> getOptions();
+
+        DirectoryProperty getRootDir();
+
+        DirectoryProperty getBuildDir();
+
+        Property<String> getProjectPath();
+
+        /**
+         * @return res 目录的绝对路径，main 源集在前
+         */
+        ListProperty<String> getResDirectories();
+
+        /**
+         * @return 查找 res 目录失败时的错误信息（引擎需要 res 目录时抛出）
+         */
+        Property<String> getResDirectoriesError();
+
+        /**
+         * @return 统计结果的输出文件，设置时由任务在 Worker 结束后发布 Build Scan 自定义值
+         */
+        RegularFileProperty getMetricsFile();
+    }
+
+    @Override
+    public void execute() {
+        MultilingualEnvironment env = new WorkerEnvironment(getParameters());
+        if (EXPORT.equals(getParameters().getEngine().get())) {
+            new MultilingualExportEngine(env).run();
+        } else {
+            new MultilingualImportEngine(env).run();
+        }
+    }
+
+    /**
+     * 由 Worker 参数构造的运行环境
+     */
+    private static final class WorkerEnvironment implements MultilingualEnvironment {
+        private final Parameters parameters;
+        private final Map<String, String> options;
+        private final Logger logger = Logging.getLogger(MultilingualEngineWorkAction.class);
+        private final MultilingualLog log = new MultilingualLog() {
+            @Override
+            public void lifecycle(String format, Object... args) {
+                logger.lifecycle(format, args);
+            }
+
+            @Override
+            public void warn(String format, Object... args) {
+                logger.warn(format, args);
+            }
+
+            @Override
+            public void error(String format, Object... args) {
+                logger.error(format, args);
+            }
+
+            @Override
+            public void info(String format, Object... args) {
+                logger.info(format, args);
+            }
+
+            @Override
+            public void debug(String format, Object... args) {
+                logger.debug(format, args);
+            }
+        };
+
+        WorkerEnvironment(Parameters parameters) {
+            this.parameters = parameters;
+            this.options = parameters.getOptions().get();
+        }
+
+        @Override
+        public String getProperty(String name) {
+            return options.get(name);
+        }
+
+        @Override
+        public File getRootDir() {
+            return parameters.getRootDir().get().getAsFile();
+        }
+
+        @Override
+        public File getBuildDir() {
+            return parameters.getBuildDir().get().getAsFile();
+        }
+
+        @Override
+        public String getProjectPath() {
+            return parameters.getProjectPath().get();
+        }
+
+        @Override
+        public List<File> findResDirectories() {
+            List<String> paths = parameters.getResDirectories().get();
+            if (paths.isEmpty()) {
+                throw new MultilingualException(parameters.getResDirectoriesError().getOrElse("No res directory found"));
+            }
+            List<File> dirs = new ArrayList<>(paths.size());
+            for (String path : paths) dirs.add(new File(path));
+            return dirs;
+        }
+
+        @Override
+        public MultilingualLog getLog() {
+            return log;
+        }
+
+        @Override
+        public void publishMetrics(MultilingualMetrics metrics) {
+            if (!parameters.getMetricsFile().isPresent()) return;
+            Properties values = new Properties();
+            values.putAll(metrics.values());
+            File file = parameters.getMetricsFile().get().getAsFile();
+            try (OutputStream out = Files.newOutputStream(file.toPath())) {
+                values.store(out, null);
+            } catch (IOException e) {
+                logger.warn("[{}] Failed to write metrics values: {}", metrics.getTaskName(), e.getMessage());
+            }
+        }
+    }
+}
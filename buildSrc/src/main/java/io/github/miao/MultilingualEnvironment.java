@@ -0,0 +1,62 @@
+package io.github.miao;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 导出 / 导入引擎的运行环境，引擎只通过此接口获取参数、目录与日志，不依赖 Gradle：
+ * - Gradle 任务：参数优先级为 -P参数 > extension配置 > task属性（见 MultilingualGradleEnvironment）
+ * - Studio 插件进程内执行：参数来自对话框与构建脚本中的 multilingual 配置，res 目录来自 Android Facet
+ */
+public interface MultilingualEnvironment {
+
+    /**
+     * @return 参数原始值；未配置时为 null。只写参数名（如 -Pwatch）时为空字符串
+     */
+    String getProperty(String name);
+
+    /**
+     * @return 项目根目录（相对路径参数与日志中的相对路径以此为基准）
+     */
+    File getRootDir();
+
+    /**
+     * @return 模块 build 目录（缓存、导入日志与统计报告写在其中）
+     */
+    File getBuildDir();
+
+    /**
+     * @return 模块路径（如 :app），写入统计报告
+     */
+    String getProjectPath();
+
+    /**
+     * 查找模块所有源集中存在的 res 目录，main 源集排在最前
+     * @throws MultilingualException 如果找不到 res 目录
+     */
+    List<File> findResDirectories();
+
+    MultilingualLog getLog();
+
+    /**
+     * 统计报告写入后调用，Gradle 下按 -PmultilingualBuildScan=true 发布 Build Scan 自定义值
+     */
+    default void publishMetrics(MultilingualMetrics metrics) {
+    }
+
+    /**
+     * @return 非空白的参数值，否则为 null
+     */
+    default String option(String name) {
+        String value = getProperty(name);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * @return 开关参数：已配置且不为 false 时为 true（-Pwatch 与 -Pwatch=true 等价）
+     */
+    default boolean flag(String name) {
+        String value = getProperty(name);
+        return value != null && !"false".equals(value);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.miao;
+
+/**
+ * 导出 / 导入引擎的错误。引擎与工具类不依赖 Gradle，Gradle 任务中转为 GradleException，
+ * Studio 插件进程内执行时直接显示错误信息。
+ */
+public class MultilingualException extends RuntimeException {
+
+    public MultilingualException(String message) {
+        super(message);
+    }
+
+    public MultilingualException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,364 @@
+package io.github.miao;
+
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * 导出引擎：将多语言 strings.xml 文件导出为 Excel 文件，不依赖 Gradle（generateExcel 任务与 Studio 插件共用）
+ * - 首列：Key（标绿）
+ * - 首行：语言代码（标绿）
+ * - 列顺序：baseline 语言后其余语言，最后为隐藏的 key 哈希列
+ * - Excel 通过 {@link MultilingualWorkbookWriter} 流式写出：共享样式、冻结表头、空翻译条件格式
+ * - 工作表：默认全部写入 Sheet1，可按 key 前缀（prefix）或所属资源文件（file）拆分为多个工作表
+ * - 导出文件名以 .csv / .tsv 结尾时直接输出分隔文本，不经过 POI
+ * - 导出文件名以 .xlf / .xliff 结尾时按目标语言输出 XLIFF 2.0 文件
+ * - Excel / CSV / TSV 导出时在旁边写入快照（.snap），导入时只处理修改过的单元格
+ */
+public class MultilingualExportEngine {
+    private final MultilingualEnvironment env;
+    private final MultilingualLog log;
+    private MultilingualMetrics metrics;
+
+    public MultilingualExportEngine(MultilingualEnvironment env) {
+        this.env = env;
+        this.log = env.getLog();
+    }
+
+    /**
+     * 执行一次导出，统计报告写入 build/reports/multilingual/generateExcel.json
+     * @throws MultilingualException 导出失败
+     */
+    public void run() {
+        metrics = new MultilingualMetrics("generateExcel");
+        try {
+            runExportToExcel();
+        } finally {
+            metrics.report(env);
+        }
+    }
+
+    private void runExportToExcel() {
+        log.lifecycle("[generateExcel] start");
+        
+        // 处理 outputResDir（可选）；未指定时覆盖所有源集（main、flavor、buildType）的 res 目录
+        List<File> resDirs;
+        String s = env.option("outputResDir");
+        if (s != null) {
+            File customResDir = new File(s);
+            if (customResDir.exists() && customResDir.isDirectory()) {
+                resDirs = Collections.singletonList(customResDir);
+                log.lifecycle("[generateExcel] Using custom res directory: {}", customResDir.getAbsolutePath());
+            } else {
+                log.warn("[generateExcel] Specified outputResDir does not exist or is not a directory, using auto-detect: {}", s);
+                resDirs = env.findResDirectories();
+            }
+        } else {
+            resDirs = env.findResDirectories();
+        }
+        File resDir = resDirs.get(0);
+        if (resDirs.size() > 1) {
+            File projectRoot = env.getRootDir();
+            List<String> relativeResDirs = new ArrayList<>();
+            for (File dir : resDirs) relativeResDirs.add(MultilingualUtils.getRelativePath(projectRoot, dir));
+            log.lifecycle("[generateExcel] Source set res directories: {}", relativeResDirs);
+        }
+        
+        // 优先级由运行环境决定（Gradle：-P参数 > extension配置 > task属性），未配置时使用默认值
+        String effectiveExportLineDir = env.option("exportLineDir");
+        if (effectiveExportLineDir == null) effectiveExportLineDir = env.option("baselineDir");
+        if (effectiveExportLineDir == null) effectiveExportLineDir = MultilingualConstants.DEFAULT_EXPORT_LINE_DIR;
+        
+        String effectiveExportDir = env.option("exportDir");
+        if (effectiveExportDir == null) effectiveExportDir = MultilingualConstants.DEFAULT_EXPORT_DIR;
+        
+        String effectiveFilePattern = env.option("exportFilePattern");
+        if (effectiveFilePattern == null) effectiveFilePattern = MultilingualConstants.DEFAULT_FILE_PATTERN;
+        
+        // 处理 exportIncludeLanguages（逗号分隔）
+        List<String> effectiveIncludeLanguages = new ArrayList<>();
+        String include = env.option("exportIncludeLanguages");
+        if (include != null) {
+            for (String part : include.split(",")) {
+                String trimmed = part.trim();
+                if (!trimmed.isEmpty()) effectiveIncludeLanguages.add(trimmed);
+            }
+        }
+        
+        // 处理 exportSheetRule（工作表拆分规则）
+        String effectiveSheetRule = env.option("exportSheetRule");
+        if (effectiveSheetRule == null) effectiveSheetRule = MultilingualConstants.SHEET_RULE_NONE;
+        if (!MultilingualConstants.SHEET_RULE_NONE.equals(effectiveSheetRule)
+                && !MultilingualConstants.SHEET_RULE_PREFIX.equals(effectiveSheetRule)
+                && !MultilingualConstants.SHEET_RULE_FILE.equals(effectiveSheetRule)) {
+            throw new MultilingualException("Unknown exportSheetRule: " + effectiveSheetRule + " (expected none, prefix or file)");
+        }
+        
+        // 基准语言代码（Excel 中基准列的表头）
+        String defaultLanguage = env.getProperty("defaultLanguage");
+        String baselineCode = defaultLanguage == null ? "" : defaultLanguage;
+        
+        // 获取 resDir 的相对路径
+        File rootDir = env.getRootDir();
+        String resDirRelative = MultilingualUtils.getRelativePath(rootDir, resDir);
+        
+        log.lifecycle("[generateExcel] resDir={} exportLineDir={} exportDir={} filePattern={} includeLanguages={} defaultLanguage={} sheetRule={}", 
+                resDirRelative, effectiveExportLineDir, effectiveExportDir, effectiveFilePattern, effectiveIncludeLanguages, baselineCode, effectiveSheetRule);
+        File baselineValuesDir = new File(resDir, effectiveExportLineDir);
+        if (!baselineValuesDir.exists()) {
+            log.error("[generateExcel] Baseline language directory does not exist: {}", baselineValuesDir.getAbsolutePath());
+            throw new MultilingualException("Baseline language directory does not exist: " + baselineValuesDir.getAbsolutePath());
+        }
+        String baselineDirName = baselineValuesDir.getName();
+
+        // 扫描基准目录与各语言目录下的全部资源文件；指定了导出语言时只扫描对应目录
+        // 与基准语言同名的目录不会被导出（基准列始终取 baseline 目录的值），无需扫描
+        final List<String> includeLanguages = effectiveIncludeLanguages;
+        MultilingualResourceIndex resourceIndex = metrics.call("scanResources", () -> MultilingualResourceIndex.scan(resDirs, name -> {
+            if (name.equals(baselineDirName)) return true;
+            if (!name.startsWith("values-")) return false;
+            String code = name.substring("values-".length());
+            // 过滤掉 "Key" 目录，避免在 Excel 中多出一列 Key
+            if ("Key".equalsIgnoreCase(code) || baselineCode.equals(code)) return false;
+            return includeLanguages.isEmpty() || includeLanguages.contains(code);
+        }, MultilingualUtils.getResourceIndexCacheFile(env.getBuildDir())));
+        metrics.add(MultilingualMetrics.COUNTER_FILES_PARSED, resourceIndex.getParsedCount());
+        log.lifecycle("[generateExcel] Scanned resource files: {} parsed, {} cached",
+                resourceIndex.getParsedCount(), resourceIndex.getCachedCount());
+        if (!resourceIndex.hasStrings(baselineDirName)) {
+            log.error("[generateExcel] No string resources found in baseline directory: {}", baselineValuesDir.getAbsolutePath());
+            throw new MultilingualException("No string resources found in baseline directory: " + baselineValuesDir.getAbsolutePath());
+        }
+
+        // 所有语言共用一张 key 表；基准语言最先加载，保证 key 序号即导出行顺序
+        MultilingualCatalog catalog = new MultilingualCatalog();
+        int baselineCount;
+        try {
+            baselineCount = resourceIndex.loadInto(catalog, baselineCode, baselineDirName);
+        } catch (MultilingualException me) {
+            log.error("[generateExcel] Failed to parse strings.xml: {}", me.getMessage());
+            throw me;
+        } catch (Exception e) {
+            log.error("[generateExcel] Exception while parsing strings.xml", e);
+            throw new MultilingualException("Failed to parse strings.xml: " + e.getMessage(), e);
+        }
+        if (baselineCount == 0) {
+            log.lifecycle("==> No exportable strings found in {}", baselineDirName);
+        }
+
+        File outDir = new File(env.getRootDir(), effectiveExportDir);
+        if (!outDir.exists()) outDir.mkdirs();
+        String pattern = effectiveFilePattern;
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, String> tokens = Map.of(
+                "yyyy", now.format(DateTimeFormatter.ofPattern("yyyy")),
+                "MM", now.format(DateTimeFormatter.ofPattern("MM")),
+                "dd", now.format(DateTimeFormatter.ofPattern("dd")),
+                "HH", now.format(DateTimeFormatter.ofPattern("HH")),
+                "mm", now.format(DateTimeFormatter.ofPattern("mm"))
+        );
+        // {module}：模块名（多模块同时导出到同一目录时用于区分文件，:feature:home → feature-home）
+        String fileName = pattern.replace("{module}", moduleFileName(env.getProjectPath(), rootDir));
+        for (var e : tokens.entrySet()) fileName = fileName.replace(e.getKey(), e.getValue());
+        if (!fileName.endsWith(".xlsx") && !MultilingualDelimitedFormat.isDelimited(new File(fileName))
+                && !MultilingualXliff.isXliff(new File(fileName))) fileName += ".xlsx";
+        File outFile = new File(outDir, fileName);
+        // 获取相对路径（相对于项目根目录）
+        String relativePath = MultilingualUtils.getRelativePath(rootDir, outFile);
+        String relativeDir = MultilingualUtils.getRelativePath(rootDir, outDir);
+        
+        log.lifecycle("========================================");
+        log.lifecycle("[generateExcel] Excel file output location:");
+        log.lifecycle("  Path: {}", relativePath);
+        log.lifecycle("  File name: {}", fileName);
+        log.lifecycle("  Directory: {}", relativeDir);
+        log.lifecycle("========================================");
+
+        // collect languages
+        int baselineKeyCount = catalog.keyCount();
+
+        for (String dirName : resourceIndex.stringDirs()) {
+            if (!dirName.startsWith("values-") || baselineCode.equals(dirName.substring("values-".length()))) continue;
+            resourceIndex.loadInto(catalog, dirName.substring("values-".length()), dirName);
+        }
+
+        List<String> ordered = new ArrayList<>();
+        ordered.add(baselineCode);
+        if (!effectiveIncludeLanguages.isEmpty()) {
+            for (String c : effectiveIncludeLanguages) if (!baselineCode.equals(c) && catalog.hasLocale(c)) ordered.add(c);
+        } else {
+            List<String> rest = new ArrayList<>(catalog.locales());
+            rest.remove(baselineCode);
+            Collections.sort(rest);
+            ordered.addAll(rest);
+        }
+        log.lifecycle("[generateExcel] languages={} (ordered)", ordered);
+
+        // XLIFF 2.0：每个目标语言一个文件，流式写出
+        if (MultilingualXliff.isXliff(outFile)) {
+            if (!MultilingualConstants.SHEET_RULE_NONE.equals(effectiveSheetRule)) {
+                log.warn("[generateExcel] exportSheetRule={} is ignored for {} output", effectiveSheetRule, fileName);
+            }
+            exportToXliff(outFile, resourceIndex, baselineDirName, baselineCode, ordered.subList(1, ordered.size()));
+            log.lifecycle("[generateExcel] SUCCESS: XLIFF files generated successfully!");
+            log.lifecycle("[generateExcel] ========== EXECUTION SUCCESS ==========");
+            return;
+        }
+
+        // CSV / TSV：不经过 POI，直接流式写出全部 key
+        if (MultilingualDelimitedFormat.isDelimited(outFile)) {
+            if (!MultilingualConstants.SHEET_RULE_NONE.equals(effectiveSheetRule)) {
+                log.warn("[generateExcel] exportSheetRule={} is ignored for {} output", effectiveSheetRule, fileName);
+            }
+            try {
+                metrics.run("writeDelimited", () -> {
+                    try (var writer = MultilingualDelimitedFormat.open(outFile)) {
+                        List<String> cells = new ArrayList<>();
+                        cells.add("Key");
+                        cells.addAll(ordered);
+                        writer.writeRow(cells);
+                        for (int k = 0; k < baselineKeyCount; k++) {
+                            cells.clear();
+                            cells.add(catalog.keyAt(k));
+                            for (String code : ordered) cells.add(catalog.get(code, k));
+                            writer.writeRow(cells);
+                            metrics.increment(MultilingualMetrics.COUNTER_ROWS);
+                            metrics.add(MultilingualMetrics.COUNTER_CELLS, ordered.size() + 1);
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                log.error("[generateExcel] Failed to write {}: {}", fileName, e.getMessage());
+                log.error("[generateExcel] ========== EXECUTION FAILED ==========");
+                throw new MultilingualException("Failed to write " + fileName + ": " + e.getMessage(), e);
+            }
+            metrics.increment(MultilingualMetrics.COUNTER_FILES_WRITTEN);
+            writeSnapshot(outFile, baselineDirName, baselineCode, ordered, catalog, baselineKeyCount, resourceIndex.files(baselineDirName));
+            log.lifecycle("[generateExcel] SUCCESS: {} file generated successfully!", fileName.substring(fileName.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT));
+            log.lifecycle("[generateExcel] ========== EXECUTION SUCCESS ==========");
+            return;
+        }
+
+        // 按拆分规则分组 key 序号，工作表按首次出现的顺序排列
+        // Excel 工作表名不区分大小写，仅大小写不同的名称合并到首次出现的工作表
+        Map<String, List<Integer>> sheetToOrdinals = new LinkedHashMap<>();
+        Map<String, String> sheetNames = new HashMap<>();
+        for (int k = 0; k < baselineKeyCount; k++) {
+            String name = sheetNameFor(effectiveSheetRule, catalog.keyAt(k), resourceIndex, baselineDirName);
+            String sheetName = sheetNames.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> name);
+            sheetToOrdinals.computeIfAbsent(sheetName, n -> new ArrayList<>()).add(k);
+        }
+        if (sheetToOrdinals.isEmpty()) sheetToOrdinals.put(MultilingualConstants.DEFAULT_SHEET_NAME, new ArrayList<>());
+        if (sheetToOrdinals.size() > 1) {
+            log.lifecycle("[generateExcel] sheets={}", sheetToOrdinals.keySet());
+        }
+
+        try (MultilingualWorkbookWriter writer = new MultilingualWorkbookWriter(ordered, baselineDirName)) {
+            metrics.run("buildWorkbook", () -> {
+                for (var sheetEntry : sheetToOrdinals.entrySet()) {
+                    writer.writeSheet(sheetEntry.getKey(), catalog, sheetEntry.getValue(), metrics);
+                }
+            });
+            metrics.run("writeWorkbook", () -> writer.write(outFile));
+            metrics.increment(MultilingualMetrics.COUNTER_FILES_WRITTEN);
+        } catch (Exception e) {
+            log.error("[generateExcel] Failed to write Excel file: {}", e.getMessage());
+            log.error("[generateExcel] ========== EXECUTION FAILED ==========");
+            throw new MultilingualException("Failed to write Excel file: " + e.getMessage(), e);
+        }
+        writeSnapshot(outFile, baselineDirName, baselineCode, ordered, catalog, baselineKeyCount, resourceIndex.files(baselineDirName));
+        log.lifecycle("[generateExcel] SUCCESS: Excel file generated successfully!");
+        log.lifecycle("[generateExcel] ========== EXECUTION SUCCESS ==========");
+    }
+
+    /**
+     * 在导出文件旁写入快照（key 表、各语言值与哈希），供导入时识别翻译方修改过的单元格；写入失败不影响导出结果
+     */
+    private void writeSnapshot(File outFile, String baselineDirName, String baselineCode, List<String> ordered, MultilingualCatalog catalog,
+                               int keyCount, List<File> baselineFiles) {
+        File snapshotFile = MultilingualSnapshot.fileFor(outFile);
+        try {
+            metrics.run("writeSnapshot", () -> MultilingualSnapshot.write(snapshotFile, baselineDirName, baselineCode, ordered,
+                    catalog, keyCount, baselineFiles));
+            metrics.increment(MultilingualMetrics.COUNTER_FILES_WRITTEN);
+            log.lifecycle("[generateExcel] Snapshot: {}",
+                    MultilingualUtils.getRelativePath(env.getRootDir(), snapshotFile));
+        } catch (Exception e) {
+            log.warn("[generateExcel] Failed to write snapshot {}: {}", snapshotFile.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 导出 XLIFF 2.0：基准目录的每个资源文件对应一个 file 元素，每个目标语言单独一个文件（文件名插入语言代码，如 language.en-rUS.xlf）；
+     * 直接从资源文件流式读取，保留 xliff:g 占位符与注释
+     */
+    private void exportToXliff(File outFile, MultilingualResourceIndex resourceIndex, String baselineDirName,
+                               String baselineCode, List<String> targetCodes) {
+        try {
+            metrics.run("writeXliff", () -> {
+                Map<String, MultilingualXliff.Entry> seen = new HashMap<>();
+                List<MultilingualXliff.FileGroup> groups = new ArrayList<>();
+                for (File file : resourceIndex.files(baselineDirName)) {
+                    Map<String, MultilingualXliff.Entry> entries = new LinkedHashMap<>();
+                    MultilingualXliff.readStrings(file, entries);
+                    List<MultilingualXliff.Entry> owned = new ArrayList<>();
+                    for (var entry : entries.values()) {
+                        if (seen.putIfAbsent(entry.key, entry) == null) owned.add(entry);
+                    }
+                    groups.add(new MultilingualXliff.FileGroup(baselineDirName + "/" + file.getName(), owned));
+                }
+
+                String name = outFile.getName();
+                int dot = name.lastIndexOf('.');
+                List<String> codes = targetCodes.isEmpty() ? Collections.singletonList(null) : targetCodes;
+                for (String code : codes) {
+                    Map<String, MultilingualXliff.Entry> targets = new HashMap<>();
+                    if (code != null) {
+                        for (File file : resourceIndex.files("values-" + code)) MultilingualXliff.readStrings(file, targets);
+                    }
+                    File target = code == null ? outFile
+                            : new File(outFile.getParentFile(), name.substring(0, dot) + "." + code + name.substring(dot));
+                    int units = MultilingualXliff.write(target, baselineCode, code, groups, targets);
+                    metrics.add(MultilingualMetrics.COUNTER_ROWS, units);
+                    metrics.increment(MultilingualMetrics.COUNTER_FILES_WRITTEN);
+                    log.lifecycle("[generateExcel] XLIFF {} -> {} ({} units): {}", baselineCode, code == null ? "-" : code, units,
+                            MultilingualUtils.getRelativePath(env.getRootDir(), target));
+                }
+            });
+        } catch (MultilingualException me) {
+            log.error("[generateExcel] Failed to write XLIFF file: {}", me.getMessage());
+            log.error("[generateExcel] ========== EXECUTION FAILED ==========");
+            throw me;
+        }
+    }
+
+    /**
+     * 文件名中的模块名：Gradle 路径去掉开头的 ':'，其余 ':' 替换为 '-'；根项目使用根目录名
+     */
+    private static String moduleFileName(String projectPath, File rootDir) {
+        String name = projectPath.startsWith(":") ? projectPath.substring(1) : projectPath;
+        return name.isEmpty() ? rootDir.getName() : name.replace(':', '-');
+    }
+
+    /**
+     * 根据拆分规则确定 key 所在的工作表名：
+     * - prefix：key 中第一个 '_' 之前的部分，没有 '_' 时为 default
+     * - file：基准目录中定义该 key 的资源文件名（不含 .xml）
+     */
+    private static String sheetNameFor(String rule, String key, MultilingualResourceIndex resourceIndex, String baselineDirName) {
+        String name;
+        if (MultilingualConstants.SHEET_RULE_PREFIX.equals(rule)) {
+            int idx = key.indexOf('_');
+            name = idx > 0 ? key.substring(0, idx) : "default";
+        } else if (MultilingualConstants.SHEET_RULE_FILE.equals(rule)) {
+            File owner = resourceIndex.ownerOf(baselineDirName, key);
+            name = owner == null ? "strings" : owner.getName().substring(0, owner.getName().length() - ".xml".length());
+        } else {
+            return MultilingualConstants.DEFAULT_SHEET_NAME;
+        }
+        return WorkbookUtil.createSafeSheetName(name);
+    }
+}
@@ -16,6 +16,7 @@ public class MultilingualExtension {
     public final Property<String> exportFilePattern;
     public final ListProperty<String> exportIncludeLanguages;
     public final Property<String> exportLineDir;
+    public final Property<String> exportSheetRule;
 
     public MultilingualExtension(Project project) {
         // 初始化默认值，尽量保证空安全
@@ -27,6 +28,7 @@ public class MultilingualExtension {
         this.exportFilePattern = project.getObjects().property(String.class).convention("language-yyyyMMdd-HHmm.xlsx");
         this.exportIncludeLanguages = project.getObjects().listProperty(String.class).convention(project.getProviders().provider(java.util.Collections::emptyList));
         this.exportLineDir = project.getObjects().property(String.class).convention("values");
+        this.exportSheetRule = project.getObjects().property(String.class).convention("none");
     }
 }
 
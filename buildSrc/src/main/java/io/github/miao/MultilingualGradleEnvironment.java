@@ -0,0 +1,399 @@
+package io.github.miao;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Gradle 任务的引擎运行环境：
+ * - 参数优先级：-P参数 > extension配置（根项目的 multilingual 扩展） > task属性，默认值由引擎决定
+ * - res 目录通过 Android 扩展的源集查找，日志转发到任务的 Logger
+ * - 引擎通过 {@link #runEngine} 在隔离类加载器的 Worker 中执行（Apache POI 不进入构建脚本类路径），
+ *   参数与 res 目录在提交前按上述规则解析
+ */
+final class MultilingualGradleEnvironment implements MultilingualEnvironment {
+    // 按实现类缓存的反射句柄，避免每次查找都重复 getMethod
+    private static final ClassValue<MethodHandle> GET_SOURCE_SETS = methodHandleCache("getSourceSets");
+    private static final ClassValue<MethodHandle> GET_RES_DIRECTORIES = methodHandleCache("getResDirectories");
+    private static final ClassValue<MethodHandle> GET_RES = methodHandleCache("getRes");
+    private static final ClassValue<MethodHandle> GET_SRC_DIRS = methodHandleCache("getSrcDirs");
+    private static final ClassValue<MethodHandle> GET_NAME = methodHandleCache("getName");
+    private static final String RES_DIRS_PROPERTY = "multilingual.resDirectories";
+
+    private final Task task;
+    private final Project project;
+    private final Logger logger;
+    // 参数名 -> 任务属性（Property / ListProperty）
+    private final Map<String, Provider<?>> taskProperties;
+    private final MultilingualLog log;
+
+    MultilingualGradleEnvironment(Task task, Map<String, Provider<?>> taskProperties) {
+        this.task = task;
+        this.project = task.getProject();
+        this.logger = task.getLogger();
+        this.taskProperties = taskProperties;
+        this.log = new MultilingualLog() {
+            @Override
+            public void lifecycle(String format, Object... args) {
+                logger.lifecycle(format, args);
+            }
+
+            @Override
+            public void warn(String format, Object... args) {
+                logger.warn(format, args);
+            }
+
+            @Override
+            public void error(String format, Object... args) {
+                logger.error(format, args);
+            }
+
+            @Override
+            public void info(String format, Object... args) {
+                logger.info(format, args);
+            }
+
+            @Override
+            public void debug(String format, Object... args) {
+                logger.debug(format, args);
+            }
+        };
+    }
+
+    @Override
+    public String getProperty(String name) {
+        Object cliValue = project.findProperty(name);
+        if (cliValue != null && !String.valueOf(cliValue).isBlank()) return String.valueOf(cliValue);
+        MultilingualExtension ext = project.getRootProject().getExtensions().findByType(MultilingualExtension.class);
+        String value = ext == null ? null : valueOf(extensionProperty(ext, name));
+        if (value == null) value = valueOf(taskProperties.get(name));
+        if (value == null && cliValue != null) value = String.valueOf(cliValue);
+        return value;
+    }
+
+    @Override
+    public File getRootDir() {
+        return project.getRootProject().getProjectDir();
+    }
+
+    @Override
+    public File getBuildDir() {
+        return project.getLayout().getBuildDirectory().getAsFile().get();
+    }
+
+    @Override
+    public String getProjectPath() {
+        return project.getPath();
+    }
+
+    @Override
+    public List<File> findResDirectories() {
+        return findAndroidResDirectories(project, logger);
+    }
+
+    @Override
+    public MultilingualLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void publishMetrics(MultilingualMetrics metrics) {
+        if (isBuildScanEnabled()) {
+            publishBuildScanValues(metrics.getTaskName(), metrics.values());
+        }
+    }
+
+    /**
+     * 在隔离类加载器的 Worker 中执行导出 / 导入引擎并等待完成：
+     * 类路径为插件本身 + poiClasspath（只有读写 .xlsx 时才加入，CSV / TSV / XLIFF 不解析 POI 依赖，离线或受限仓库下同样可用），
+     * 参数、目录与 res 目录在此解析后作为 Worker 参数传入；
+     * Worker 写出的统计结果在结束后发布为 Build Scan 自定义值
+     * @param engine {@link MultilingualEngineWorkAction#EXPORT} 或 {@link MultilingualEngineWorkAction#IMPORT}
+     * @param optionNames 引擎读取的参数名
+     * @throws GradleException 引擎执行失败时，消息为引擎的错误信息
+     */
+    void runEngine(WorkerExecutor workerExecutor, FileCollection poiClasspath, String engine, List<String> optionNames) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String name : optionNames) {
+            String value = getProperty(name);
+            if (value != null) options.put(name, value);
+        }
+        List<String> resDirectories = new ArrayList<>();
+        String resDirectoriesError = null;
+        try {
+            for (File dir : findResDirectories()) resDirectories.add(dir.getAbsolutePath());
+        } catch (GradleException | MultilingualException e) {
+            resDirectoriesError = e.getMessage();
+        }
+        String taskName = MultilingualEngineWorkAction.EXPORT.equals(engine) ? "generateExcel" : "generateTranslations";
+        File metricsFile = isBuildScanEnabled() ? new File(task.getTemporaryDir(), "metrics.properties") : null;
+        if (metricsFile != null) metricsFile.delete();
+
+        boolean workbook = usesWorkbook(engine, options);
+        WorkQueue queue = workerExecutor.classLoaderIsolation(spec -> {
+            if (workbook) spec.getClasspath().from(poiClasspath);
+        });
+        String error = resDirectoriesError;
+        queue.submit(MultilingualEngineWorkAction.class, parameters -> {
+            parameters.getEngine().set(engine);
+            parameters.getOptions().set(options);
+            parameters.getRootDir().set(getRootDir());
+            parameters.getBuildDir().set(getBuildDir());
+            parameters.getProjectPath().set(getProjectPath());
+            parameters.getResDirectories().set(resDirectories);
+            if (error != null) parameters.getResDirectoriesError().set(error);
+            if (metricsFile != null) parameters.getMetricsFile().set(metricsFile);
+        });
+        try {
+            queue.await();
+        } catch (RuntimeException e) {
+            // 引擎的预期错误（MultilingualException）由隔离类加载器加载，按类名识别，只保留其消息
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (MultilingualException.class.getName().equals(cause.getClass().getName())) {
+                    throw new GradleException(cause.getMessage());
+                }
+            }
+            throw e;
+        }
+        if (metricsFile != null && metricsFile.isFile()) {
+            Properties values = new Properties();
+            try (InputStream in = Files.newInputStream(metricsFile.toPath())) {
+                values.load(in);
+            } catch (IOException e) {
+                logger.warn("[{}] Failed to read metrics values: {}", taskName, e.getMessage());
+                return;
+            }
+            Map<String, String> sorted = new TreeMap<>();
+            for (String name : values.stringPropertyNames()) sorted.put(name, values.getProperty(name));
+            publishBuildScanValues(taskName, sorted);
+        }
+    }
+
+    /**
+     * @return 导入的文件或导出的文件名是否为 Excel 工作簿（不是 CSV / TSV / XLIFF），与引擎判断格式的方式一致
+     */
+    private static boolean usesWorkbook(String engine, Map<String, String> options) {
+        String name = MultilingualEngineWorkAction.EXPORT.equals(engine)
+                ? options.getOrDefault("exportFilePattern", MultilingualConstants.DEFAULT_FILE_PATTERN)
+                : options.get("excelFilePath");
+        if (name == null) return false;
+        File file = new File(name);
+        return !MultilingualDelimitedFormat.isDelimited(file) && !MultilingualXliff.isXliff(file);
+    }
+
+    private boolean isBuildScanEnabled() {
+        Object publish = project.findProperty("multilingualBuildScan");
+        return publish != null && Boolean.parseBoolean(publish.toString());
+    }
+
+    /**
+     * 与参数同名的扩展配置项
+     */
+    private static Provider<?> extensionProperty(MultilingualExtension ext, String name) {
+        return switch (name) {
+            case "excelFilePath" -> ext.excelFilePath;
+            case "defaultLanguage" -> ext.defaultLanguage;
+            case "baselineDir" -> ext.baselineDir;
+            case "exportDir" -> ext.exportDir;
+            case "exportFilePattern" -> ext.exportFilePattern;
+            case "exportIncludeLanguages" -> ext.exportIncludeLanguages;
+            case "exportLineDir" -> ext.exportLineDir;
+            case "exportSheetRule" -> ext.exportSheetRule;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return 已配置的属性值；列表属性以逗号连接，空列表视为未配置
+     */
+    private static String valueOf(Provider<?> provider) {
+        if (provider == null || !provider.isPresent()) return null;
+        if (provider instanceof ListProperty<?> list) {
+            List<?> values = list.get();
+            if (values.isEmpty()) return null;
+            List<String> parts = new ArrayList<>();
+            for (Object v : values) parts.add(String.valueOf(v));
+            return String.join(",", parts);
+        }
+        return String.valueOf(provider.get());
+    }
+
+    /**
+     * 通过反射发布 Build Scan 自定义值，兼容 develocity { buildScan { } } 与旧版 buildScan { } 扩展；
+     * 未应用相应插件时静默跳过
+     */
+    private void publishBuildScanValues(String taskName, Map<String, String> values) {
+        try {
+            Object buildScan;
+            Object develocity = project.getRootProject().getExtensions().findByName("develocity");
+            if (develocity != null) {
+                buildScan = develocity.getClass().getMethod("getBuildScan").invoke(develocity);
+            } else {
+                buildScan = project.getRootProject().getExtensions().findByName("buildScan");
+            }
+            if (buildScan == null) {
+                logger.info("[{}] Build scan extension not found, skip publishing custom values", taskName);
+                return;
+            }
+            var value = buildScan.getClass().getMethod("value", String.class, String.class);
+            String prefix = "multilingual." + taskName + ".";
+            for (var e : values.entrySet()) {
+                value.invoke(buildScan, prefix + e.getKey(), e.getValue());
+            }
+        } catch (Exception e) {
+            logger.warn("[{}] Failed to publish build scan values: {}", taskName, e.getMessage());
+        }
+    }
+
+    /**
+     * 查找 Android 项目的 res 目录
+     * @param project Gradle 项目对象
+     * @param logger 日志记录器对象（可选，支持 Gradle Logger 接口的方法调用）
+     * @return res 目录的 File 对象（main 源集的 res 目录）
+     * @throws GradleException 如果找不到 res 目录
+     */
+    public static File findAndroidResDirectory(Project project, Object logger) {
+        return findAndroidResDirectories(project, logger).get(0);
+    }
+    
+    /**
+     * 查找 Android 项目所有源集（main、productFlavor、buildType 及其组合）中存在的 res 目录，
+     * main 源集排在最前；结果在同一次构建内按项目缓存
+     * @param project Gradle 项目对象
+     * @param logger 日志记录器对象（可选，支持 Gradle Logger 接口的方法调用）
+     * @return res 目录列表（至少包含一个）
+     * @throws GradleException 如果找不到 res 目录
+     */
+    @SuppressWarnings("unchecked")
+    public static List<File> findAndroidResDirectories(Project project, Object logger) {
+        var extra = project.getExtensions().getExtraProperties();
+        if (extra.has(RES_DIRS_PROPERTY)) {
+            return (List<File>) extra.get(RES_DIRS_PROPERTY);
+        }
+        
+        Set<File> found = new LinkedHashSet<>();
+        File standard = new File(project.getProjectDir(), "src/main/res");
+        if (standard.exists() && standard.isDirectory()) {
+            found.add(standard);
+        }
+        
+        try {
+            boolean isApp = project.getPlugins().hasPlugin("com.android.application");
+            boolean isLib = project.getPlugins().hasPlugin("com.android.library");
+            if (isApp || isLib) {
+                Object androidExt = project.getExtensions().findByName("android");
+                if (androidExt != null) {
+                    Object sourceSets = GET_SOURCE_SETS.get(androidExt.getClass()).invoke(androidExt);
+                    List<Object> ordered = new ArrayList<>();
+                    for (Object sourceSet : (Iterable<?>) sourceSets) {
+                        // main 源集优先，其余按容器顺序（flavor、buildType、variant）
+                        if ("main".equals(GET_NAME.get(sourceSet.getClass()).invoke(sourceSet))) ordered.add(0, sourceSet);
+                        else ordered.add(sourceSet);
+                    }
+                    for (Object sourceSet : ordered) {
+                        for (Object dir : resDirectoriesOf(sourceSet)) {
+                            if (dir instanceof File f && f.isDirectory()) {
+                                found.add(f);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            if (logger != null) {
+                try {
+                    logger.getClass().getMethod("warn", String.class, Object.class).invoke(logger, 
+                        "[MultilingualGradleEnvironment] Failed to detect res directory via Android extension: {}", e.getMessage());
+                } catch (Exception ignored) {}
+            }
+        }
+        
+        if (!found.isEmpty()) {
+            List<File> result = Collections.unmodifiableList(new ArrayList<>(found));
+            extra.set(RES_DIRS_PROPERTY, result);
+            return result;
+        }
+        
+        // 提供详细的错误提示
+        String projectDir = project.getProjectDir().getAbsolutePath();
+        String projectName = project.getName();
+        String errorMessage = String.format(
+            "无法自动找到 Android 项目的 res 目录。%n%n" +
+            "项目信息：%n" +
+            "  - 项目名称: %s%n" +
+            "  - 项目目录: %s%n" +
+            "  - 标准路径检查: %s/src/main/res (不存在)%n%n" +
+            "解决方案：%n" +
+            "  1. 确认项目是否包含 Android 应用或库模块%n" +
+            "  2. 确认 res 目录是否存在，路径通常为: <模块名>/src/main/res%n" +
+            "  3. 如果 res 目录在非标准位置，请在插件对话框中手动选择\"项目res目录选择\"字段%n" +
+            "  4. 检查 build.gradle 中是否正确应用了 Android 插件 (com.android.application 或 com.android.library)%n%n" +
+            "如果问题仍然存在，请检查项目结构是否正确。",
+            projectName, projectDir, projectDir
+        );
+        
+        if (logger != null) {
+            try {
+                logger.getClass().getMethod("error", String.class, Object.class).invoke(logger, 
+                    "[MultilingualGradleEnvironment] {}", errorMessage);
+            } catch (Exception ignored) {}
+        }
+        throw new GradleException(errorMessage);
+    }
+    
+    /**
+     * 读取源集的 res 目录：优先 getResDirectories()，不存在时使用 getRes().getSrcDirs()
+     */
+    private static Collection<?> resDirectoriesOf(Object sourceSet) throws Throwable {
+        try {
+            return (Collection<?>) GET_RES_DIRECTORIES.get(sourceSet.getClass()).invoke(sourceSet);
+        } catch (IllegalStateException missing) {
+            Object res = GET_RES.get(sourceSet.getClass()).invoke(sourceSet);
+            return (Collection<?>) GET_SRC_DIRS.get(res.getClass()).invoke(res);
+        }
+    }
+    
+    private static ClassValue<MethodHandle> methodHandleCache(String methodName) {
+        return new ClassValue<>() {
+            @Override
+            protected MethodHandle computeValue(Class<?> type) {
+                try {
+                    Method method = type.getMethod(methodName);
+                    try {
+                        method.setAccessible(true);
+                    } catch (RuntimeException ignored) {}
+                    return MethodHandles.lookup()
+                            .unreflect(method)
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Method " + methodName + " not found on " + type.getName(), e);
+                }
+            }
+        };
+    }
+}
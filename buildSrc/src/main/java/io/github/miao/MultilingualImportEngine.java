@@ -0,0 +1,1343 @@
+package io.github.miao;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 导入引擎：从 Excel 读取翻译，按基准 strings.xml 的 key 生成各语言的 strings.xml。
+ * 不依赖 Gradle，generateTranslations 任务与 Studio 插件共用。
+ */
+public class MultilingualImportEngine {
+    // 逐单元格报告的状态列
+    private static final String REPORT_WRITTEN = "written";
+    private static final String REPORT_KEY_NOT_FOUND = "keyNotFound";
+
+    private final MultilingualEnvironment env;
+    private final MultilingualLog log;
+    private MultilingualMetrics metrics;
+    private MultilingualResourceIndex resourceIndex;
+    private List<File> resDirs = new ArrayList<>();
+    // 目标语言目录中不存在的 key，按这些目录中该 key 所在的文件名决定写入位置
+    private List<String> ownerReferenceDirs = new ArrayList<>();
+    // 每种语言实际写入的资源文件
+    private final Map<String, Set<File>> langToFiles = new LinkedHashMap<>();
+    // 全部工作表中待写入的翻译：语言代码 -> (key -> 文本)
+    private final Map<String, Map<String, String>> pendingUpdates = new LinkedHashMap<>();
+    // 待写入的翻译中已是 strings.xml 标记（如含 xliff:g 占位符）的 key：语言代码 -> key
+    private final Map<String, Set<String>> pendingMarkup = new HashMap<>();
+    // 导出时写入的快照，用于跳过未修改的单元格
+    private MultilingualSnapshot snapshot;
+    // 对比语言目录中定义的 key
+    private Set<String> comparisonKeys = Collections.emptySet();
+    private int unchangedCount;
+    // 占位符校验：方式、基准目录与校验器（首次入队时按基准目录懒加载）
+    private String placeholderCheck = MultilingualConstants.PLACEHOLDER_CHECK_WARN;
+    private String placeholderBaselineDir = MultilingualConstants.DEFAULT_BASELINE_DIR;
+    private MultilingualPlaceholders placeholders;
+    // 基准目录中各 key 的文本（占位符校验与行完整性校验共用，首次使用时加载）
+    private Map<String, String> baselineTexts;
+    // 行完整性校验：过时行的处理方式（warn / skip）与校验结果，工作簿有隐藏哈希列时才校验
+    private String staleRows = MultilingualConstants.STALE_ROWS_WARN;
+    private MultilingualRowIntegrity rowIntegrity;
+    // 哈希列表头记录的目录（导出时的 exportLineDir）中各 key 的文本，按目录首次使用时加载
+    private final Map<String, Map<String, String>> integrityTexts = new HashMap<>();
+    private final Set<String> integrityDirs = new java.util.TreeSet<>();
+    // 导入日志：记录已提交的资源文件，-Presume 时跳过
+    private MultilingualImportJournal journal;
+
+    // 监听模式（-Pwatch）：被监听的文件，以及上一次成功导入时各行的指纹（之后只处理变化的行）
+    private boolean watching;
+    private File watchedFile;
+    private Map<String, Long> rowFingerprints;
+    private Map<String, Long> currentFingerprints = new HashMap<>();
+    private int unchangedRowCount;
+    // 对比目录中不存在的 key：跳过 / 插入的数量（逐行明细只在 info 级别输出）
+    private int skippedNewKeyCount;
+    private int insertedNewKeyCount;
+    // compare 模式下按基准文本找不到 key 的行：按工作表汇总输出，逐行明细只在 info 级别输出并写入逐单元格报告
+    private final List<UnmatchedRow> unmatchedRows = new ArrayList<>();
+
+    public MultilingualImportEngine(MultilingualEnvironment env) {
+        this.env = env;
+        this.log = env.getLog();
+    }
+
+    /**
+     * 执行一次导入；-Pwatch 时之后持续监听输入文件，直到线程被中断
+     * @throws MultilingualException 导入失败（监听模式下只有第一次导入失败时抛出）
+     */
+    public void run() {
+        watching = env.flag("watch");
+        rowFingerprints = null;
+        importOnce();
+        if (watching) watchExcelFile();
+    }
+
+    private void importOnce() {
+        metrics = new MultilingualMetrics("generateTranslations");
+        currentFingerprints = new HashMap<>();
+        unchangedRowCount = 0;
+        skippedNewKeyCount = 0;
+        insertedNewKeyCount = 0;
+        unmatchedRows.clear();
+        try {
+            runGenerateTranslations();
+            if (watching) rowFingerprints = currentFingerprints;
+        } finally {
+            snapshot = null;
+            placeholders = null;
+            baselineTexts = null;
+            rowIntegrity = null;
+            integrityTexts.clear();
+            integrityDirs.clear();
+            journal = null;
+            metrics.report(env);
+        }
+    }
+
+    private void runGenerateTranslations() {
+        log.lifecycle("[generateTranslations] start");
+        
+        // 优先级由运行环境决定（Gradle：-P参数 > extension配置 > task属性），未配置时使用默认值
+        String effectiveExcelFilePath = env.option("excelFilePath");
+        if (effectiveExcelFilePath == null) {
+            throw new MultilingualException("Excel file path not configured. Please use command line parameter -PexcelFilePath or extension configuration");
+        }
+        
+        // 处理 defaultLanguage（仅在 compare 模式下需要）
+        // 注意：effectiveDefaultLanguage 可能为 null（在 force 模式下），稍后在 compare 模式下会检查
+        String effectiveDefaultLanguage = env.option("defaultLanguage");
+        
+        // 处理 baselineDir
+        String effectiveBaselineDir = env.option("baselineDir");
+        if (effectiveBaselineDir == null) effectiveBaselineDir = MultilingualConstants.DEFAULT_BASELINE_DIR;
+        placeholderBaselineDir = effectiveBaselineDir;
+        
+        File excelFile = new File(effectiveExcelFilePath);
+        watchedFile = excelFile.getAbsoluteFile();
+        if (!excelFile.exists()) {
+            log.error("[generateTranslations] Excel file does not exist: {}", excelFile.getAbsolutePath());
+            throw new MultilingualException("Excel file does not exist: " + excelFile.getAbsolutePath());
+        }
+
+        // 处理 outputResDir（可选）；未指定时覆盖所有源集（main、flavor、buildType）的 res 目录
+        String outputResDir = env.option("outputResDir");
+        if (outputResDir != null) {
+            File customResDir = new File(outputResDir);
+            if (customResDir.exists() && customResDir.isDirectory()) {
+                resDirs = Collections.singletonList(customResDir);
+                // 获取相对路径（相对于项目根目录）
+                File rootDir = env.getRootDir();
+                String resDirRelative = MultilingualUtils.getRelativePath(rootDir, customResDir);
+                log.lifecycle("[generateTranslations] Using custom res directory: {}", resDirRelative);
+            } else {
+                log.warn("[generateTranslations] Specified outputResDir does not exist or is not a directory, using auto-detect: {}", outputResDir);
+                resDirs = env.findResDirectories();
+            }
+        } else {
+            resDirs = env.findResDirectories();
+        }
+        File resDir = resDirs.get(0);
+        if (resDirs.size() > 1) {
+            File projectRoot = env.getRootDir();
+            List<String> relativeResDirs = new ArrayList<>();
+            for (File dir : resDirs) relativeResDirs.add(MultilingualUtils.getRelativePath(projectRoot, dir));
+            log.lifecycle("[generateTranslations] Source set res directories: {}", relativeResDirs);
+        }
+        
+        // 处理 importMode（导入模式）
+        String effectiveImportMode = env.option("importMode");
+        if (effectiveImportMode == null) effectiveImportMode = MultilingualConstants.IMPORT_MODE_COMPARE; // 默认为比对导入模式
+        log.lifecycle("[generateTranslations] Import mode: {}", effectiveImportMode);
+        
+        // 处理 comparisonBaseDir（对比语言key目录，用于判断key是否存在）
+        // 注意：这个目录是相对于 resDir 的相对路径，resDir 由 "项目res目录选择" 决定
+        String effectiveComparisonBaseDir = env.option("comparisonBaseDir");
+        if (effectiveComparisonBaseDir == null) effectiveComparisonBaseDir = "values"; // 默认值
+        
+        // 处理 insertionMode（key处理方式）
+        String effectiveInsertionMode = env.option("insertionMode");
+        if (effectiveInsertionMode != null) {
+            log.lifecycle("[generateTranslations] insertionMode from parameter: {}", effectiveInsertionMode);
+        } else {
+            effectiveInsertionMode = MultilingualConstants.INSERTION_MODE_SKIP_NEW_KEY; // 默认：key不存在跳过
+            log.lifecycle("[generateTranslations] insertionMode using default: {}", effectiveInsertionMode);
+        }
+        
+        // 处理 placeholderCheck（占位符校验方式）：off / warn（默认，仅报告）/ skip（跳过不一致的单元格）/ error（报告后失败，不写入任何文件）
+        placeholderCheck = MultilingualConstants.PLACEHOLDER_CHECK_WARN;
+        String cliPlaceholderCheck = env.option("placeholderCheck");
+        if (cliPlaceholderCheck != null) {
+            placeholderCheck = cliPlaceholderCheck.trim();
+            if (!List.of(MultilingualConstants.PLACEHOLDER_CHECK_OFF, MultilingualConstants.PLACEHOLDER_CHECK_WARN,
+                    MultilingualConstants.PLACEHOLDER_CHECK_SKIP, MultilingualConstants.PLACEHOLDER_CHECK_ERROR).contains(placeholderCheck)) {
+                throw new MultilingualException("Invalid placeholderCheck: " + placeholderCheck + " (expected off, warn, skip or error)");
+            }
+            log.lifecycle("[generateTranslations] placeholderCheck from parameter: {}", placeholderCheck);
+        }
+        placeholders = null;
+
+        // 处理 staleRows（导出后基准文本已变化的行）：warn（默认，列出后照常导入）/ skip（不导入这些行）
+        staleRows = MultilingualConstants.STALE_ROWS_WARN;
+        String cliStaleRows = env.option("staleRows");
+        if (cliStaleRows != null) {
+            staleRows = cliStaleRows.trim();
+            if (!List.of(MultilingualConstants.STALE_ROWS_WARN, MultilingualConstants.STALE_ROWS_SKIP).contains(staleRows)) {
+                throw new MultilingualException("Invalid staleRows: " + staleRows + " (expected warn or skip)");
+            }
+            log.lifecycle("[generateTranslations] staleRows from parameter: {}", staleRows);
+        }
+        rowIntegrity = null;
+
+        // 处理 resume（续传）：输入文件与参数不变时，跳过上次失败前已写入完成的资源文件
+        // 监听模式下只有第一次导入续传
+        boolean resume = env.flag("resume") && rowFingerprints == null;
+        List<String> identityParts = new ArrayList<>(List.of(excelFile.getAbsolutePath(), String.valueOf(excelFile.length()),
+                String.valueOf(excelFile.lastModified()), effectiveImportMode, effectiveBaselineDir, String.valueOf(effectiveDefaultLanguage),
+                effectiveComparisonBaseDir, effectiveInsertionMode, placeholderCheck, staleRows));
+        for (File dir : resDirs) identityParts.add(dir.getAbsolutePath());
+        journal = MultilingualImportJournal.begin(MultilingualUtils.getImportJournalFile(env.getBuildDir()), String.join("|", identityParts), resume);
+        if (resume) {
+            if (journal.getResumableCount() > 0) {
+                log.lifecycle("[generateTranslations] Resuming import: {} files were committed by the previous run", journal.getResumableCount());
+            } else {
+                log.warn("[generateTranslations] No import journal matches this input and parameters, importing everything");
+            }
+        }
+
+        if (MultilingualXliff.isXliff(excelFile)) {
+            // XLIFF 文件自带 key 与目标语言，不区分导入模式
+            generateTranslationsFromXliff(excelFile, resDir, effectiveComparisonBaseDir, effectiveInsertionMode);
+        } else if ("force".equals(effectiveImportMode)) {
+            // force 模式：使用 resDir 作为基础目录，comparisonBaseDir 用于对比，insertionMode 用于key处理
+            generateTranslationsByForceMode(excelFile, resDir, effectiveComparisonBaseDir, effectiveInsertionMode);
+        } else {
+            // compare 模式（默认）：需要 defaultLanguage 和 baselineDir
+            if (effectiveDefaultLanguage == null) {
+                throw new MultilingualException("Default language not configured for compare mode. Please use command line parameter -PdefaultLanguage or extension configuration");
+            }
+            generateTranslationsByCompareMode(excelFile, resDir, effectiveBaselineDir, effectiveDefaultLanguage, 
+                    effectiveComparisonBaseDir, effectiveInsertionMode);
+        }
+        journal.complete();
+    }
+    
+    /**
+     * 指定语言比对导入模式：根据基准语言的文本内容匹配key，仅更新匹配到的翻译
+     * @param excelFile Excel 文件路径
+     * @param resDir 项目 res 目录
+     * @param effectiveBaselineDir 基准语言目录（如 "values"）
+     * @param effectiveDefaultLanguage 默认语言代码（如 "zh-rCN"）
+     * @param comparisonBaseDir 对比语言key目录，用于判断key是否存在
+     * @param insertionMode key处理方式：skipNewKey（key不存在跳过）或 insertNewKey（key不存在插入）
+     */
+    private void generateTranslationsByCompareMode(File excelFile, File resDir, String effectiveBaselineDir, 
+            String effectiveDefaultLanguage, String comparisonBaseDir, String insertionMode) {
+        // 获取相对路径（相对于项目根目录）
+        File rootDir = env.getRootDir();
+        String resDirRelative = MultilingualUtils.getRelativePath(rootDir, resDir);
+        String excelFileRelative = MultilingualUtils.getRelativePath(rootDir, excelFile);
+        log.lifecycle("[generateTranslations] resDir={} baselineDir={} defaultLanguage={} comparisonBaseDir={} insertionMode={} excelFilePath={}", 
+                resDirRelative, effectiveBaselineDir, effectiveDefaultLanguage, comparisonBaseDir, insertionMode, excelFileRelative);
+        
+        // 读取基准语言目录（用于匹配key）
+        File baselineValuesDir = new File(resDir, effectiveBaselineDir);
+        if (!baselineValuesDir.exists()) {
+            log.error("[generateTranslations] Baseline language directory does not exist: {}", baselineValuesDir.getAbsolutePath());
+            throw new MultilingualException("Baseline language directory does not exist: " + baselineValuesDir.getAbsolutePath());
+        }
+
+        scanResources(effectiveBaselineDir, comparisonBaseDir);
+        if (!resourceIndex.hasStrings(effectiveBaselineDir)) {
+            log.error("[generateTranslations] No string resources found in baseline directory: {}", baselineValuesDir.getAbsolutePath());
+            throw new MultilingualException("No string resources found in baseline directory: " + baselineValuesDir.getAbsolutePath());
+        }
+
+        // 基准目录自导出后未变化时，直接用快照中的基准列匹配 key，无需加载基准 strings.xml
+        loadSnapshot(excelFile);
+        boolean snapshotKeys = snapshot != null && snapshot.matchesBaseline(effectiveBaselineDir, resourceIndex.files(effectiveBaselineDir));
+
+        // 基准语言与对比语言共用一张 key 表，以 values 目录名区分
+        MultilingualCatalog catalog = new MultilingualCatalog();
+        if (snapshotKeys) {
+            log.lifecycle("[generateTranslations] default strings: {} entries (from snapshot)", snapshot.keyCount());
+        } else {
+            int defaultCount;
+            try {
+                defaultCount = resourceIndex.loadInto(catalog, effectiveBaselineDir, effectiveBaselineDir);
+            } catch (MultilingualException me) {
+                log.error("[generateTranslations] Failed to parse strings.xml: {}", me.getMessage());
+                throw me;
+            } catch (Exception e) {
+                log.error("[generateTranslations] Exception while parsing strings.xml", e);
+                throw new MultilingualException("Failed to parse strings.xml: " + e.getMessage(), e);
+            }
+            log.lifecycle("[generateTranslations] default strings: {} entries", defaultCount);
+        }
+        
+        // 读取对比语言目录（用于判断key是否存在）
+        boolean hasComparison = loadComparison(resDir, comparisonBaseDir);
+
+        try {
+            List<MultilingualSheetReader.SheetData> sheets = readSheets(excelFile);
+            int updatedCount = 0;
+            // 跟踪每个语言文件生成的key
+            Map<String, java.util.Set<String>> langToKeys = new HashMap<>();
+            boolean defaultLangFound = false;
+
+            for (var sheet : sheets) {
+                Map<Integer, String> languageCodes = detectLanguages(sheet, 0);
+                if (languageCodes == null) continue;
+
+                Integer defaultLangCol = null;
+                for (var e : languageCodes.entrySet()) {
+                    if (e.getValue().equals(effectiveDefaultLanguage)) { defaultLangCol = e.getKey(); break; }
+                }
+                if (defaultLangCol == null) {
+                    log.warn("[generateTranslations] Default language not found in sheet [{}]: {}, skipping sheet", sheet.name, effectiveDefaultLanguage);
+                    continue;
+                }
+                defaultLangFound = true;
+
+                for (var e : languageCodes.entrySet()) {
+                    if (!e.getValue().equals(effectiveDefaultLanguage)) {
+                        langToKeys.computeIfAbsent(e.getValue(), k -> new java.util.HashSet<>());
+                    }
+                }
+
+                int hashCol = hashColumn(sheet);
+                int langCol = defaultLangCol;
+                int unmatchedBefore = unmatchedRows.size();
+                updatedCount += metrics.call("matchKeys", () -> {
+                    int updated = 0;
+                    String rowScope = rowScope(sheet);
+                    for (var row : sheet.rows) {
+                        int rowNum = row.rowNum;
+                        metrics.increment(MultilingualMetrics.COUNTER_ROWS);
+                        if (isRowUnchangedSinceLastRun(rowScope + rowNum, row.cells)) continue;
+                        String defaultCell = row.cell(langCol);
+                        if (defaultCell == null) continue;
+                        String defaultText = defaultCell.trim();
+                        if (defaultText.isEmpty()) continue;
+
+                        String key = snapshotKeys ? snapshot.findKeyByBaselineValue(defaultText)
+                                : catalog.findKeyByValue(effectiveBaselineDir, defaultText);
+                        if (key == null) {
+                            log.info("Key not found in default strings.xml for text: {} (sheet: {}, row: {})", defaultText, sheet.name, rowNum + 1);
+                            unmatchedRows.add(new UnmatchedRow(sheet.name, rowNum + 1, defaultText));
+                            continue;
+                        }
+                        if (!checkRowIntegrity(sheet, hashCol, row, key)) continue;
+
+                        // 根据key处理方式检查是否应该处理这个key
+                        if (hasComparison) {
+                            boolean keyExistsInComparison = comparisonKeys.contains(key);
+                            if ("skipNewKey".equals(insertionMode)) {
+                                // key不存在跳过：如果key在对比目录中不存在，跳过
+                                if (!keyExistsInComparison) {
+                                    log.info("Skipping key: [{}] (not found in comparison directory: {})", key, comparisonBaseDir);
+                                    skippedNewKeyCount++;
+                                    continue;
+                                }
+                            } else if ("insertNewKey".equals(insertionMode)) {
+                                // key不存在插入：如果key在对比目录中不存在，则插入该key数据
+                                // 如果key存在，则正常更新（继续处理）
+                                // 注意：这个模式下，key不存在也会被插入，所以不需要跳过
+                                if (!keyExistsInComparison) {
+                                    log.info("Inserting new key: [{}] (not found in comparison directory: {}, will insert)", key, comparisonBaseDir);
+                                    insertedNewKeyCount++;
+                                    // 继续处理，不跳过
+                                }
+                            }
+                        }
+
+                        // 开始处理一个新 key 的翻译
+                        log.debug("Processing key: [{}]", key);
+
+                        for (var e : languageCodes.entrySet()) {
+                            String langCode = e.getValue();
+                            if (langCode.equals(effectiveDefaultLanguage)) continue;
+                            String cell = row.cell(e.getKey());
+                            if (cell == null) continue;
+                            metrics.increment(MultilingualMetrics.COUNTER_CELLS);
+                            String translationText = cell.trim();
+                            if (isUnchangedSinceExport(langCode, key, translationText)) continue;
+                            if (!queueTranslation(langCode, key, translationText)) continue;
+                            langToKeys.get(langCode).add(key);
+                            updated++;
+                        }
+                    }
+                    return updated;
+                });
+                int unmatched = unmatchedRows.size() - unmatchedBefore;
+                if (unmatched > 0) {
+                    log.warn("[generateTranslations] Sheet [{}]: {} rows not found in default strings.xml, skipped (details: --info or cell report)",
+                            sheet.name, unmatched);
+                }
+                recordSheet(sheet, languageCodes);
+            }
+            if (!defaultLangFound) {
+                log.error("[generateTranslations] Default language not found in Excel: {}", effectiveDefaultLanguage);
+                throw new MultilingualException("Default language not found in Excel: " + effectiveDefaultLanguage);
+            }
+
+            writePendingTranslations();
+            // 输出详细的生成信息
+            outputGenerationSummary(updatedCount, langToKeys, resDir);
+        } catch (MultilingualException me) {
+            log.error("[generateTranslations] ========== EXECUTION FAILED ==========");
+            log.error("[generateTranslations] Error: {}", me.getMessage());
+            throw me;
+        } catch (Exception e) {
+            log.error("[generateTranslations] ========== EXECUTION FAILED ==========");
+            log.error("[generateTranslations] Failed to read Excel file", e);
+            throw new MultilingualException("Failed to read Excel file: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 首列key对比导入模式：根据Excel首列的key和对比语言key目录进行匹配key导入
+     * @param excelFile Excel 文件路径
+     * @param resDir 项目res目录，既用于输出，也用于对比（由"项目res目录选择"决定）
+     * @param comparisonBaseDir 对比语言key目录，相对于resDir，用于判断key是否存在
+     * @param insertionMode key处理方式：skipNewKey（key不存在跳过）或 insertNewKey（key不存在插入）
+     */
+    private void generateTranslationsByForceMode(File excelFile, File resDir, String comparisonBaseDir, String insertionMode) {
+        log.lifecycle("[generateTranslations] Using FORCE mode: Import by first column key");
+        // 获取相对路径（相对于项目根目录）
+        File rootDir = env.getRootDir();
+        String resDirRelative = MultilingualUtils.getRelativePath(rootDir, resDir);
+        
+        log.lifecycle("[generateTranslations] resDir={} comparisonBaseDir={} insertionMode={}", 
+                resDirRelative, comparisonBaseDir, insertionMode);
+        
+        // 读取对比语言目录（用于判断key是否存在）
+        scanResources(comparisonBaseDir);
+        boolean hasComparison = loadComparison(resDir, comparisonBaseDir);
+        loadSnapshot(excelFile);
+
+        try {
+            List<MultilingualSheetReader.SheetData> sheets = readSheets(excelFile);
+            int updatedCount = 0;
+            // 跟踪每个语言文件生成的key
+            Map<String, java.util.Set<String>> langToKeys = new HashMap<>();
+
+            for (var sheet : sheets) {
+                // 检测语言列（从第2列开始，第1列是key）
+                Map<Integer, String> languageCodes = detectLanguages(sheet, 1);
+                if (languageCodes == null) continue;
+                for (var e : languageCodes.entrySet()) {
+                    langToKeys.computeIfAbsent(e.getValue(), k -> new java.util.HashSet<>());
+                }
+
+                // 第1列（索引0）是key列
+                int hashCol = hashColumn(sheet);
+                updatedCount += metrics.call("matchKeys", () -> {
+                    int updated = 0;
+                    String rowScope = rowScope(sheet);
+                    for (var row : sheet.rows) {
+                        metrics.increment(MultilingualMetrics.COUNTER_ROWS);
+                        if (isRowUnchangedSinceLastRun(rowScope + row.rowNum, row.cells)) continue;
+
+                        // 读取首列的key
+                        String keyCell = row.cell(0);
+                        if (keyCell == null) continue;
+                        String key = keyCell.trim();
+                        if (key.isEmpty()) continue;
+                        if (!checkRowIntegrity(sheet, hashCol, row, key)) continue;
+
+                        // 根据key处理方式检查是否应该处理这个key
+                        if (hasComparison) {
+                            boolean keyExistsInComparison = comparisonKeys.contains(key);
+                            log.debug("Key: [{}], exists in comparison: {}, insertionMode: {}", key, keyExistsInComparison, insertionMode);
+                            if ("skipNewKey".equals(insertionMode)) {
+                                // key不存在跳过：如果key在对比目录中不存在，跳过
+                                if (!keyExistsInComparison) {
+                                    log.info("Skipping key: [{}] (not found in comparison directory: {})", key, comparisonBaseDir);
+                                    skippedNewKeyCount++;
+                                    continue;
+                                }
+                            } else if ("insertNewKey".equals(insertionMode)) {
+                                // key不存在插入：如果key在对比目录中不存在，则插入该key数据
+                                // 如果key存在，则正常更新（继续处理）
+                                if (!keyExistsInComparison) {
+                                    log.info("Inserting new key: [{}] (not found in comparison directory: {}, will insert)", key, comparisonBaseDir);
+                                    insertedNewKeyCount++;
+                                    // 继续处理，不跳过 - 让代码继续执行到生成文件的部分
+                                } else {
+                                    log.info("Updating existing key: [{}] (found in comparison directory: {})", key, comparisonBaseDir);
+                                }
+                            } else {
+                                log.warn("Unknown insertionMode: {}, will proceed with key: [{}]", insertionMode, key);
+                            }
+                        } else {
+                            // 如果没有对比目录，根据insertionMode决定
+                            log.debug("Comparison directory not available, insertionMode: {}", insertionMode);
+                            if ("skipNewKey".equals(insertionMode)) {
+                                // 如果没有对比目录且是skipNewKey模式，应该跳过所有key
+                                log.info("Skipping key: [{}] (comparison directory not available, skipNewKey mode)", key);
+                                skippedNewKeyCount++;
+                                continue;
+                            } else if ("insertNewKey".equals(insertionMode)) {
+                                // insertNewKey模式：没有对比目录时，插入所有key
+                                log.info("Inserting new key: [{}] (comparison directory not available, insertNewKey mode)", key);
+                                insertedNewKeyCount++;
+                                // 继续处理
+                            } else {
+                                log.warn("Unknown insertionMode: {}, will proceed with key: [{}]", insertionMode, key);
+                            }
+                        }
+
+                        // 开始处理一个新 key 的翻译
+                        log.debug("Processing key: [{}]", key);
+
+                        // 遍历所有语言列
+                        for (var e : languageCodes.entrySet()) {
+                            String langCode = e.getValue();
+                            String cell = row.cell(e.getKey());
+                            if (cell == null) continue;
+                            metrics.increment(MultilingualMetrics.COUNTER_CELLS);
+                            String translationText = cell.trim();
+                            if (translationText.isEmpty()) continue; // 跳过空翻译
+                            if (isUnchangedSinceExport(langCode, key, translationText)) continue;
+
+                            if (!queueTranslation(langCode, key, translationText)) continue;
+                            langToKeys.get(langCode).add(key);
+                            updated++;
+                        }
+                    }
+                    return updated;
+                });
+                recordSheet(sheet, languageCodes);
+            }
+
+            writePendingTranslations();
+            // 输出详细的生成信息
+            outputGenerationSummary(updatedCount, langToKeys, resDir);
+        } catch (MultilingualException me) {
+            log.error("[generateTranslations] ========== EXECUTION FAILED ==========");
+            log.error("[generateTranslations] Error: {}", me.getMessage());
+            throw me;
+        } catch (Exception e) {
+            log.error("[generateTranslations] ========== EXECUTION FAILED ==========");
+            log.error("[generateTranslations] Failed to read Excel file", e);
+            throw new MultilingualException("Failed to read Excel file: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * XLIFF 2.0 导入：以 unit id 为 key、trgLang 为目标语言写入 target 文本，占位符还原为 xliff:g
+     * @param xliffFile XLIFF 文件
+     * @param resDir 项目 res 目录
+     * @param comparisonBaseDir 对比语言key目录，用于判断key是否存在
+     * @param insertionMode key处理方式：skipNewKey（key不存在跳过）或 insertNewKey（key不存在插入）
+     */
+    private void generateTranslationsFromXliff(File xliffFile, File resDir, String comparisonBaseDir, String insertionMode) {
+        log.lifecycle("[generateTranslations] Using XLIFF import: {}", xliffFile.getName());
+        scanResources(comparisonBaseDir);
+        boolean hasComparison = loadComparison(resDir, comparisonBaseDir);
+
+        try {
+            MultilingualXliff.Document document = metrics.call("readXliff", () -> MultilingualXliff.read(xliffFile));
+            if (document.targetLanguage == null || document.targetLanguage.isBlank()) {
+                throw new MultilingualException("XLIFF file has no trgLang: " + xliffFile.getAbsolutePath());
+            }
+            String langCode = MultilingualXliff.fromBcp47(document.targetLanguage);
+            log.lifecycle("[generateTranslations] XLIFF srcLang={} trgLang={} -> {}", document.sourceLanguage, document.targetLanguage, langCode);
+
+            pendingUpdates.clear();
+            pendingMarkup.clear();
+            int updatedCount = 0;
+            Map<String, java.util.Set<String>> langToKeys = new HashMap<>();
+            langToKeys.put(langCode, new java.util.HashSet<>());
+            updatedCount += metrics.call("matchKeys", () -> {
+                int updated = 0;
+                for (var e : document.targets.entrySet()) {
+                    String key = e.getKey();
+                    metrics.increment(MultilingualMetrics.COUNTER_ROWS);
+                    if (isRowUnchangedSinceLastRun(xliffFile.getName() + '\0' + langCode + '\0' + key, e.getValue())) continue;
+                    if (hasComparison && !comparisonKeys.contains(key)) {
+                        if ("skipNewKey".equals(insertionMode)) {
+                            log.info("Skipping key: [{}] (not found in comparison directory: {})", key, comparisonBaseDir);
+                            skippedNewKeyCount++;
+                            continue;
+                        }
+                        log.info("Inserting new key: [{}] (not found in comparison directory: {}, will insert)", key, comparisonBaseDir);
+                        insertedNewKeyCount++;
+                    }
+                    metrics.increment(MultilingualMetrics.COUNTER_CELLS);
+                    if (!queueTranslation(langCode, key, e.getValue(), true)) continue;
+                    langToKeys.get(langCode).add(key);
+                    updated++;
+                }
+                return updated;
+            });
+            journal.recordSheet(xliffFile.getName(), 0, document.targets.size() - 1, List.of(langCode));
+
+            writePendingTranslations();
+            outputGenerationSummary(updatedCount, langToKeys, resDir);
+        } catch (MultilingualException me) {
+            log.error("[generateTranslations] ========== EXECUTION FAILED ==========");
+            log.error("[generateTranslations] Error: {}", me.getMessage());
+            throw me;
+        }
+    }
+    
+    /**
+     * 输出生成摘要信息
+     */
+    private void outputGenerationSummary(int updatedCount, Map<String, java.util.Set<String>> langToKeys, File resDir) {
+        if (unchangedCount > 0) {
+            log.lifecycle("[generateTranslations] Skipped {} cells unchanged since export (snapshot)", unchangedCount);
+        }
+        if (unchangedRowCount > 0) {
+            log.lifecycle("[generateTranslations] Skipped {} rows unchanged since the last run (watch)", unchangedRowCount);
+        }
+        if (skippedNewKeyCount > 0 || insertedNewKeyCount > 0) {
+            log.lifecycle("[generateTranslations] Keys not in comparison directory: {} skipped, {} inserted (use --info for the list)",
+                    skippedNewKeyCount, insertedNewKeyCount);
+        }
+        log.lifecycle("");
+        log.lifecycle("═══════════════════════════════════════════════════════════");
+        log.lifecycle("[generateTranslations] Execution completed! Updated {} translations", updatedCount);
+        log.lifecycle("═══════════════════════════════════════════════════════════");
+        log.lifecycle("");
+        // 按语言代码与 key 排序输出，与工作表顺序、写入线程无关
+        for (var entry : new java.util.TreeMap<>(langToKeys).entrySet()) {
+            String langCode = entry.getKey();
+            java.util.Set<String> keys = new java.util.TreeSet<>(entry.getValue());
+            if (!keys.isEmpty()) {
+                log.lifecycle("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+                // 获取相对路径（相对于项目根目录）
+                File rootDir = env.getRootDir();
+                for (File file : langToFiles.getOrDefault(langCode, Collections.emptySet())) {
+                    log.lifecycle("[GENERATED] File: {}", MultilingualUtils.getRelativePath(rootDir, file));
+                }
+                log.lifecycle("  Language code: {}", langCode);
+                log.lifecycle("  Contains {} keys", keys.size());
+                log.info("  Keys: {}", String.join(", ", keys));
+                log.lifecycle("");
+            }
+        }
+        log.lifecycle("═══════════════════════════════════════════════════════════");
+        log.lifecycle("[generateTranslations] ✓ SUCCESS: All translation files generated!");
+        log.lifecycle("═══════════════════════════════════════════════════════════");
+    }
+
+    /**
+     * 扫描所有 res 目录下全部 values 目录的资源文件，建立 key 与所属文件的索引
+     * @param referenceDirs 写入新 key 时参考的目录（按顺序查找 key 所在的文件名）
+     */
+    private void scanResources(String... referenceDirs) {
+        resourceIndex = metrics.call("scanResources",
+                () -> MultilingualResourceIndex.scan(resDirs, null, MultilingualUtils.getResourceIndexCacheFile(env.getBuildDir())));
+        metrics.add(MultilingualMetrics.COUNTER_FILES_PARSED, resourceIndex.getParsedCount());
+        log.lifecycle("[generateTranslations] Scanned resource files: {} parsed, {} cached",
+                resourceIndex.getParsedCount(), resourceIndex.getCachedCount());
+        ownerReferenceDirs = new ArrayList<>(Arrays.asList(referenceDirs));
+        ownerReferenceDirs.add("values");
+        langToFiles.clear();
+    }
+
+    /**
+     * 从资源索引中取对比语言目录（所有 res 目录下同名目录）中定义的 key，不再重复读取文件
+     * @return 是否可用于 key 存在性判断
+     */
+    private boolean loadComparison(File resDir, String comparisonBaseDir) {
+        comparisonKeys = Collections.emptySet();
+        if (comparisonBaseDir == null || comparisonBaseDir.isEmpty()) return false;
+        File comparisonValuesDir = new File(resDir, comparisonBaseDir);
+        if (comparisonValuesDir.exists()) {
+            comparisonKeys = resourceIndex.keySet(comparisonBaseDir);
+            if (!comparisonKeys.isEmpty()) {
+                log.lifecycle("[generateTranslations] comparison strings: {} entries from {}", comparisonKeys.size(), comparisonBaseDir);
+                return true;
+            } else {
+                log.warn("[generateTranslations] No string resources found in comparison directory: {}, will ignore insertion mode check", comparisonValuesDir.getAbsolutePath());
+            }
+        } else {
+            log.warn("[generateTranslations] Comparison language directory does not exist: {}, will ignore insertion mode check", comparisonValuesDir.getAbsolutePath());
+        }
+        return false;
+    }
+
+    /**
+     * 加载导出快照：默认为工作簿旁的 &lt;文件名&gt;.snap，可用 -PsnapshotFile 指定，-PuseSnapshot=false 时不使用
+     */
+    private void loadSnapshot(File excelFile) {
+        snapshot = null;
+        unchangedCount = 0;
+        if ("false".equals(env.getProperty("useSnapshot"))) return;
+        String cliSnapshotFile = env.option("snapshotFile");
+        File snapshotFile = cliSnapshotFile != null ? new File(cliSnapshotFile) : MultilingualSnapshot.fileFor(excelFile);
+        snapshot = metrics.call("loadSnapshot", () -> MultilingualSnapshot.open(snapshotFile));
+        if (snapshot != null) {
+            log.lifecycle("[generateTranslations] Using export snapshot: {} ({} keys)", snapshotFile.getName(), snapshot.keyCount());
+        } else if (snapshotFile.exists()) {
+            log.warn("[generateTranslations] Ignoring unreadable snapshot: {}", snapshotFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return 单元格是否与导出时相同（翻译方未修改），相同时不需要写入
+     */
+    private boolean isUnchangedSinceExport(String langCode, String key, String text) {
+        if (snapshot == null || !snapshot.isUnchanged(langCode, key, text)) return false;
+        unchangedCount++;
+        return true;
+    }
+
+    private Workbook loadWorkbook(File excelFile) throws java.io.IOException {
+        return metrics.call("loadWorkbook", () -> WorkbookFactory.create(excelFile));
+    }
+
+    /**
+     * 读取工作簿中的全部工作表（多个工作表并行读取）；.csv / .tsv 文件作为单个工作表读取
+     */
+    private List<MultilingualSheetReader.SheetData> readSheets(File excelFile) throws java.io.IOException {
+        List<MultilingualSheetReader.SheetData> sheets;
+        if (MultilingualDelimitedFormat.isDelimited(excelFile)) {
+            // CSV / TSV 直接流式解析，不加载 POI
+            sheets = metrics.call("readSheets", () -> Collections.singletonList(MultilingualDelimitedFormat.read(excelFile)));
+        } else {
+            try (var wb = loadWorkbook(excelFile)) {
+                sheets = metrics.call("readSheets", () -> MultilingualSheetReader.readAll(wb));
+            }
+        }
+        if (sheets.isEmpty()) {
+            log.error("[generateTranslations] No worksheet found in Excel file");
+            throw new MultilingualException("No worksheet found in Excel file");
+        }
+        if (sheets.stream().allMatch(sheet -> sheet.header == null)) {
+            log.error("[generateTranslations] No header row found in Excel file");
+            throw new MultilingualException("No header row found in Excel file");
+        }
+        if (sheets.size() > 1) {
+            log.lifecycle("[generateTranslations] Reading {} worksheets", sheets.size());
+        }
+        int typedCells = 0;
+        List<String> diagnostics = new ArrayList<>();
+        for (var sheet : sheets) {
+            typedCells += sheet.typedCells;
+            diagnostics.addAll(sheet.diagnostics);
+        }
+        if (typedCells > 0) {
+            log.lifecycle("[generateTranslations] Decoded {} numeric / boolean / formula cells as text", typedCells);
+        }
+        if (!diagnostics.isEmpty()) {
+            metrics.add("cellDiagnostics", diagnostics.size());
+            log.warn("[generateTranslations] {} cells could not be decoded and are treated as empty:", diagnostics.size());
+            for (String d : diagnostics) log.warn("  ✗ {}", d);
+        }
+        pendingUpdates.clear();
+        return sheets;
+    }
+
+    /**
+     * 从工作表表头检测语言列
+     * @param startCol 起始列（force 模式下第1列是key）
+     * @return 列索引 -> 语言代码；工作表没有表头时返回 null
+     */
+    private Map<Integer, String> detectLanguages(MultilingualSheetReader.SheetData sheet, int startCol) {
+        if (sheet.header == null) {
+            log.warn("[generateTranslations] No header row found in sheet [{}], skipping sheet", sheet.name);
+            return null;
+        }
+        Map<Integer, String> languageCodes = new HashMap<>();
+        log.lifecycle("Detecting languages from Excel header... (sheet: {})", sheet.name);
+        for (int col = startCol; col < sheet.header.length; col++) {
+            String val = sheet.header[col];
+            if (val == null) continue;
+            String code = val.contains("/") ? val.substring(val.lastIndexOf('/') + 1).trim() : val.trim();
+            // 过滤掉 "Key" 目录，避免生成 values-Key 目录；隐藏的哈希列不是语言列
+            if (!code.isEmpty() && !"Key".equalsIgnoreCase(code) && MultilingualRowIntegrity.headerDir(val) == null) {
+                languageCodes.put(col, code);
+                log.lifecycle("  ✓ Detected language: {} (column index: {})", code, col);
+            }
+        }
+        log.lifecycle("");
+        return languageCodes;
+    }
+
+    /**
+     * @return 工作表中行指纹的作用域（工作表名 + 表头），表头变化时所有行都视为变化
+     */
+    private static String rowScope(MultilingualSheetReader.SheetData sheet) {
+        return sheet.name + '\0' + Arrays.toString(sheet.header) + '\0';
+    }
+
+    /**
+     * 监听模式下记录行指纹，并判断该行是否与上一次成功导入时相同；非监听模式或首次导入时总是返回 false
+     */
+    private boolean isRowUnchangedSinceLastRun(String rowId, String... cells) {
+        if (!watching) return false;
+        long fingerprint = 1;
+        for (String cell : cells) fingerprint = fingerprint * 31 + (cell == null ? 0 : MultilingualSnapshot.hash(cell));
+        currentFingerprints.put(rowId, fingerprint);
+        Long previous = rowFingerprints == null ? null : rowFingerprints.get(rowId);
+        if (previous == null || previous != fingerprint) return false;
+        unchangedRowCount++;
+        return true;
+    }
+
+    /**
+     * 监听模式：通过 WatchService 监听 Excel 文件所在目录，文件变化并在防抖时间（-PwatchDebounceMs，默认 1500）内
+     * 没有新的变化后重新导入，只处理与上一次成功导入相比发生变化的行。导入失败时保留上一次的指纹，继续监听；
+     * 构建被取消（Ctrl+C）时结束
+     */
+    private void watchExcelFile() {
+        long debounceMs = 1500;
+        String cliDebounce = env.option("watchDebounceMs");
+        if (cliDebounce != null) {
+            try {
+                debounceMs = Long.parseLong(cliDebounce.trim());
+            } catch (NumberFormatException e) {
+                throw new MultilingualException("Invalid watchDebounceMs: " + cliDebounce);
+            }
+        }
+        File file = watchedFile;
+        java.nio.file.Path dir = file.getParentFile().toPath();
+        String fileName = file.getName();
+        log.lifecycle("[generateTranslations] Watching {} for changes (debounce {} ms), press Ctrl+C to stop", file.getAbsolutePath(), debounceMs);
+        try (var watchService = java.nio.file.FileSystems.getDefault().newWatchService()) {
+            dir.register(watchService, java.nio.file.StandardWatchEventKinds.ENTRY_CREATE, java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                if (!drainEvents(watchService.take(), fileName)) continue;
+                // 防抖：保存过程中会连续产生多个事件，等到防抖时间内没有新事件再导入
+                java.nio.file.WatchKey next;
+                while ((next = watchService.poll(debounceMs, java.util.concurrent.TimeUnit.MILLISECONDS)) != null) {
+                    drainEvents(next, fileName);
+                }
+                if (!file.isFile()) continue;
+                log.lifecycle("");
+                log.lifecycle("[generateTranslations] Change detected: {}", fileName);
+                try {
+                    importOnce();
+                } catch (MultilingualException e) {
+                    log.error("[generateTranslations] Import failed, waiting for the next change: {}", e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.lifecycle("[generateTranslations] Watch stopped");
+        } catch (java.io.IOException e) {
+            throw new MultilingualException("Failed to watch " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 取出一个 WatchKey 上的全部事件并重置
+     * @return 是否包含被监听文件的变化
+     */
+    private static boolean drainEvents(java.nio.file.WatchKey key, String fileName) {
+        boolean changed = false;
+        for (var event : key.pollEvents()) {
+            if (event.context() instanceof java.nio.file.Path p && fileName.equals(p.toString())) changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 在导入日志中记录处理完的工作表行范围与语言
+     */
+    private void recordSheet(MultilingualSheetReader.SheetData sheet, Map<Integer, String> languageCodes) {
+        int firstRow = sheet.rows.isEmpty() ? -1 : sheet.rows.get(0).rowNum;
+        int lastRow = sheet.rows.isEmpty() ? -1 : sheet.rows.get(sheet.rows.size() - 1).rowNum;
+        journal.recordSheet(sheet.name, firstRow, lastRow, new java.util.TreeSet<>(languageCodes.values()));
+    }
+
+    private boolean queueTranslation(String langCode, String key, String value) {
+        return queueTranslation(langCode, key, value, false);
+    }
+
+    /**
+     * 记录一条待写入的翻译；同一 key 多次出现时以最后一次为准
+     * @param markup value 是否为原始标记（写入时按 XML 片段解析）
+     * @return 是否入队（placeholderCheck=skip 时占位符不一致的单元格不入队）
+     */
+    private boolean queueTranslation(String langCode, String key, String value, boolean markup) {
+        if (!checkPlaceholders(langCode, key, value, markup) && MultilingualConstants.PLACEHOLDER_CHECK_SKIP.equals(placeholderCheck)) {
+            return false;
+        }
+        pendingUpdates.computeIfAbsent(langCode, k -> new LinkedHashMap<>()).put(key, value);
+        if (markup) pendingMarkup.computeIfAbsent(langCode, k -> new java.util.HashSet<>()).add(key);
+        log.info("  → {}/{} = {}", langCode, key, value);
+        return true;
+    }
+
+    /**
+     * 将单元格的占位符签名与基准目录中同一 key 的文本比较；首次调用时加载基准文本
+     * @return 是否一致（未开启校验、基准中没有该 key 时返回 true）
+     */
+    private boolean checkPlaceholders(String langCode, String key, String value, boolean markup) {
+        if (MultilingualConstants.PLACEHOLDER_CHECK_OFF.equals(placeholderCheck)) return true;
+        if (placeholders == null) {
+            placeholders = new MultilingualPlaceholders(baselineTexts()::get);
+        }
+        return placeholders.check(langCode, key, value, markup);
+    }
+
+    /**
+     * @return 基准目录中各 key 的文本，首次调用时加载
+     */
+    private Map<String, String> baselineTexts() {
+        if (baselineTexts == null) {
+            Map<String, String> baseline = new HashMap<>();
+            metrics.run("loadBaselineTexts", () -> resourceIndex.forEachString(placeholderBaselineDir, baseline::put));
+            baselineTexts = baseline;
+        }
+        return baselineTexts;
+    }
+
+    /**
+     * @return 工作表中隐藏哈希列的索引，没有时返回 -1
+     */
+    private static int hashColumn(MultilingualSheetReader.SheetData sheet) {
+        if (sheet.header == null) return -1;
+        for (int col = 0; col < sheet.header.length; col++) {
+            if (MultilingualRowIntegrity.headerDir(sheet.header[col]) != null) return col;
+        }
+        return -1;
+    }
+
+    /**
+     * 用隐藏哈希列校验行是否基于当前的基准文本；工作表没有哈希列时不校验。
+     * 哈希按表头记录的目录（导出时的 exportLineDir）计算，旧版本导出的 "#hash" 表头按 baselineDir 校验
+     * @return 是否导入该行（staleRows=skip 时过时的行不导入）
+     */
+    private boolean checkRowIntegrity(MultilingualSheetReader.SheetData sheet, int hashCol, MultilingualSheetReader.RowData row, String key) {
+        if (hashCol < 0) return true;
+        if (rowIntegrity == null) rowIntegrity = new MultilingualRowIntegrity();
+        String dir = MultilingualRowIntegrity.headerDir(sheet.header[hashCol]);
+        if (dir.isEmpty()) dir = placeholderBaselineDir;
+        integrityDirs.add(dir);
+        var status = rowIntegrity.classify(sheet.name, row.rowNum, key, row.cell(hashCol), integrityTexts(dir)::get);
+        if (status != MultilingualRowIntegrity.Status.STALE || !MultilingualConstants.STALE_ROWS_SKIP.equals(staleRows)) return true;
+        log.info("Skipping key: [{}] (baseline text changed since export, row: {})", key, row.rowNum + 1);
+        return false;
+    }
+
+    /**
+     * @return 目录中各 key 的文本，首次调用时加载；与基准目录相同时共用 {@link #baselineTexts()}
+     */
+    private Map<String, String> integrityTexts(String dir) {
+        if (dir.equals(placeholderBaselineDir)) return baselineTexts();
+        return integrityTexts.computeIfAbsent(dir, d -> {
+            Map<String, String> texts = new HashMap<>();
+            metrics.run("loadBaselineTexts", () -> resourceIndex.forEachString(d, texts::put));
+            return texts;
+        });
+    }
+
+    /**
+     * 汇总输出行完整性校验结果
+     */
+    private void reportRowIntegrity() {
+        if (rowIntegrity == null) return;
+        var stale = rowIntegrity.getStaleRows();
+        metrics.add("rowsCurrent", rowIntegrity.getCurrentCount());
+        metrics.add("rowsStale", stale.size());
+        metrics.add("rowsNew", rowIntegrity.getNewCount());
+        log.lifecycle("[generateTranslations] Row integrity against {}: {} current, {} stale, {} new",
+                String.join(", ", integrityDirs), rowIntegrity.getCurrentCount(), stale.size(), rowIntegrity.getNewCount());
+        if (stale.isEmpty()) return;
+        log.warn("");
+        log.warn("[generateTranslations] {} rows were exported from a different baseline text and may be outdated ({}):",
+                stale.size(), MultilingualConstants.STALE_ROWS_SKIP.equals(staleRows) ? "skipped" : "imported");
+        for (var row : stale) {
+            log.warn("  ✗ [{}] row {}: {}", row.sheet, row.row, row.key);
+        }
+        log.warn("");
+    }
+
+    /**
+     * 汇总输出占位符校验结果；placeholderCheck=error 且存在不一致时失败，此时尚未写入任何文件
+     */
+    private void reportPlaceholderIssues() {
+        if (placeholders == null) return;
+        List<MultilingualPlaceholders.Issue> issues = placeholders.getIssues();
+        metrics.add("placeholderChecked", placeholders.getCheckedCount());
+        metrics.add("placeholderMismatches", issues.size());
+        if (issues.isEmpty()) {
+            log.lifecycle("[generateTranslations] Placeholder check: {} cells checked against {}, no mismatches",
+                    placeholders.getCheckedCount(), placeholderBaselineDir);
+            return;
+        }
+        log.warn("");
+        log.warn("[generateTranslations] Placeholder check: {} of {} cells do not match {} ({})",
+                issues.size(), placeholders.getCheckedCount(), placeholderBaselineDir, placeholderCheck);
+        for (var issue : issues) {
+            log.warn("  ✗ {}/{}: expected [{}] found [{}] = {}", issue.langCode, issue.key,
+                    issue.expected, issue.actual, issue.text);
+        }
+        log.warn("");
+        if (MultilingualConstants.PLACEHOLDER_CHECK_ERROR.equals(placeholderCheck)) {
+            throw new MultilingualException(issues.size() + " translations have placeholders that do not match " + placeholderBaselineDir
+                    + ", no files were written (use -PplaceholderCheck=warn or skip to import anyway)");
+        }
+    }
+
+    /**
+     * 将全部工作表的待写入翻译按目标资源文件分组，每个文件只解析和写入一次：
+     * - 目标文件的确定、统计与导入日志的提交在当前线程按语言顺序进行，结果与日志输出保持确定
+     * - 各语言的合并与写入互不依赖（目录不同），作为独立任务在有界线程池中并行执行
+     */
+    private void writePendingTranslations() {
+        reportRowIntegrity();
+        reportPlaceholderIssues();
+        int resumableCount = journal.getResumableCount();
+        boolean resuming = journal.prepareCommit();
+        if (resumableCount > 0 && !resuming) {
+            log.warn("[generateTranslations] Worksheets differ from the previous run, ignoring import journal");
+        }
+        File reportFile = MultilingualUtils.getImportCellReportFile(env.getBuildDir());
+        int resumedCount = metrics.call("writeXml", () -> {
+            int resumed = 0;
+            try (var report = openCellReport(reportFile)) {
+                List<LocaleWrite> jobs = new ArrayList<>();
+                for (var langEntry : pendingUpdates.entrySet()) {
+                    String langCode = langEntry.getKey();
+                    String langDirName = langCode.isEmpty() ? "values" : "values-" + langCode;
+                    // 写回定义该 key 的资源文件（可能位于其他源集）；新 key 按参考目录中的文件归属放置，默认 strings.xml
+                    Map<File, Map<String, String>> fileToUpdates = new LinkedHashMap<>();
+                    for (var e : langEntry.getValue().entrySet()) {
+                        File target = resourceIndex.resolveTargetFile(langDirName, e.getKey(), ownerReferenceDirs);
+                        fileToUpdates.computeIfAbsent(target, k -> new LinkedHashMap<>()).put(e.getKey(), e.getValue());
+                    }
+                    LocaleWrite job = new LocaleWrite(langCode, pendingMarkup.getOrDefault(langCode, Collections.emptySet()));
+                    for (var fileEntry : fileToUpdates.entrySet()) {
+                        File stringsFile = fileEntry.getKey();
+                        if (resuming && journal.isCommitted(stringsFile)) {
+                            resumed++;
+                        } else {
+                            job.files.put(stringsFile, fileEntry.getValue());
+                        }
+                        writeCellReport(report, langCode, stringsFile, fileEntry.getValue());
+                        for (String key : fileEntry.getValue().keySet()) resourceIndex.recordOwner(langDirName, key, stringsFile);
+                        langToFiles.computeIfAbsent(langCode, k -> new LinkedHashSet<>()).add(stringsFile);
+                    }
+                    if (!job.files.isEmpty()) jobs.add(job);
+                    log.lifecycle("[generateTranslations] {}: {} cells -> {} files", langDirName, langEntry.getValue().size(), fileToUpdates.size());
+                }
+                runLocaleWrites(jobs);
+                writeUnmatchedReport(report);
+                if (report != null && (!pendingUpdates.isEmpty() || !unmatchedRows.isEmpty())) {
+                    log.lifecycle("[generateTranslations] Cell report: {}", MultilingualUtils.getRelativePath(env.getRootDir(), reportFile));
+                }
+                pendingUpdates.clear();
+                pendingMarkup.clear();
+            } catch (java.io.IOException e) {
+                // 只有关闭报告时可能失败，翻译已写入
+                log.warn("[generateTranslations] Failed to write cell report {}: {}", reportFile.getName(), e.getMessage());
+            }
+            return resumed;
+        });
+        if (resumedCount > 0) {
+            log.lifecycle("[generateTranslations] Skipped {} files already committed by the previous run (resume)", resumedCount);
+        }
+    }
+
+    /**
+     * 打开逐单元格报告（TSV：语言、key、目标文件、文本、状态）；打开失败时返回 null，不影响导入
+     */
+    private MultilingualDelimitedFormat.RowWriter openCellReport(File reportFile) {
+        try {
+            java.nio.file.Files.createDirectories(reportFile.getParentFile().toPath());
+            var report = MultilingualDelimitedFormat.open(reportFile);
+            report.writeRow(List.of("locale", "key", "file", "text", "status"));
+            return report;
+        } catch (java.io.IOException e) {
+            log.warn("[generateTranslations] Failed to write cell report {}: {}", reportFile.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCellReport(MultilingualDelimitedFormat.RowWriter report, String langCode, File stringsFile,
+                                 Map<String, String> updates) {
+        if (report == null) return;
+        String file = MultilingualUtils.getRelativePath(env.getRootDir(), stringsFile);
+        try {
+            for (var e : updates.entrySet()) report.writeRow(List.of(langCode, e.getKey(), file, e.getValue(), REPORT_WRITTEN));
+        } catch (java.io.IOException e) {
+            log.warn("[generateTranslations] Failed to write cell report for {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 将找不到 key 的行写入逐单元格报告：语言与 key 为空，目标文件一列为来源位置（工作表!行号）
+     */
+    private void writeUnmatchedReport(MultilingualDelimitedFormat.RowWriter report) {
+        if (report == null) return;
+        try {
+            for (UnmatchedRow row : unmatchedRows) {
+                report.writeRow(List.of("", "", row.sheet() + "!" + row.row(), row.text(), REPORT_KEY_NOT_FOUND));
+            }
+        } catch (java.io.IOException e) {
+            log.warn("[generateTranslations] Failed to write cell report for unmatched rows: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * compare 模式下按基准文本找不到 key 的行（行号从 1 开始）
+     */
+    private record UnmatchedRow(String sheet, int row, String text) {
+    }
+
+    /**
+     * 一种语言的写入任务：按顺序写入的资源文件及其翻译，执行结果（已写入的文件、解析的已有文件数、导入日志错误）在任务结束后由调用线程汇总
+     */
+    private static final class LocaleWrite {
+        final String langCode;
+        final Set<String> markupKeys;
+        final Map<File, Map<String, String>> files = new LinkedHashMap<>();
+        final List<File> written = new ArrayList<>();
+        int parsed;
+        String journalError;
+
+        LocaleWrite(String langCode, Set<String> markupKeys) {
+            this.langCode = langCode;
+            this.markupKeys = markupKeys;
+        }
+    }
+
+    /**
+     * 执行各语言的写入任务（只有一种语言时在当前线程执行）；每个文件写完即由写入线程提交导入日志，
+     * 等待全部任务结束后按语言顺序汇总统计与日志输出，某种语言失败时其余语言照常写完（续传时跳过已提交的文件），再抛出第一个失败
+     */
+    private void runLocaleWrites(List<LocaleWrite> jobs) {
+        if (jobs.isEmpty()) return;
+        int parallelism = Math.min(jobs.size(), Runtime.getRuntime().availableProcessors());
+        List<Throwable> failures = new ArrayList<>();
+        if (parallelism <= 1) {
+            for (LocaleWrite job : jobs) {
+                try {
+                    writeLocale(job);
+                    failures.add(null);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                    break;
+                }
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread t = new Thread(r, "multilingual-xml-writer");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (LocaleWrite job : jobs) futures.add(executor.submit(() -> writeLocale(job)));
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                        failures.add(null);
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MultilingualException("Interrupted while writing strings.xml", e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        Throwable firstFailure = null;
+        for (int i = 0; i < failures.size(); i++) {
+            LocaleWrite job = jobs.get(i);
+            metrics.add(MultilingualMetrics.COUNTER_FILES_PARSED, job.parsed);
+            metrics.add(MultilingualMetrics.COUNTER_FILES_WRITTEN, job.written.size());
+            if (job.journalError != null) {
+                log.warn("[generateTranslations] Failed to update import journal: {}", job.journalError);
+            }
+            Throwable failure = failures.get(i);
+            if (failure != null && firstFailure == null) firstFailure = failure;
+        }
+        if (firstFailure != null) {
+            log.error("[generateTranslations] Failed to write strings.xml: {}", firstFailure.getMessage());
+            if (firstFailure instanceof MultilingualException me) throw me;
+            throw new MultilingualException("Failed to write strings.xml: " + firstFailure.getMessage(), firstFailure);
+        }
+    }
+
+    /**
+     * 按顺序写入一种语言的全部资源文件，每写完一个文件即提交导入日志；在写入线程中执行，不访问统计与日志
+     */
+    private void writeLocale(LocaleWrite job) {
+        for (var fileEntry : job.files.entrySet()) {
+            if (writeLanguageFile(fileEntry.getKey(), fileEntry.getValue(), job.markupKeys)) job.parsed++;
+            job.written.add(fileEntry.getKey());
+            commitJournal(job, fileEntry.getKey());
+        }
+    }
+
+    /**
+     * 将写入完成的资源文件提交到导入日志；日志写入失败不影响导入，只是无法续传（错误记录在任务中，由调用线程输出）
+     */
+    private void commitJournal(LocaleWrite job, File stringsFile) {
+        try {
+            journal.commit(stringsFile);
+        } catch (java.io.IOException e) {
+            if (job.journalError == null) job.journalError = e.getMessage();
+        }
+    }
+
+    /**
+     * 合并翻译并写入一个资源文件
+     * @return 是否解析了已存在的文件
+     */
+    private boolean writeLanguageFile(File stringsFile, Map<String, String> updates, Set<String> markupKeys) {
+        try {
+            File langDir = stringsFile.getParentFile();
+            if (!langDir.exists()) langDir.mkdirs();
+            var docBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            boolean exists = stringsFile.exists();
+            var doc = exists ? docBuilder.parse(stringsFile) : docBuilder.newDocument();
+            if (!exists) doc.appendChild(doc.createElement("resources"));
+
+            doc.getDocumentElement().normalize();
+            var resources = doc.getDocumentElement();
+            Map<String, Element> existing = new HashMap<>();
+            NodeList list = resources.getElementsByTagName("string");
+            for (int i = 0; i < list.getLength(); i++) {
+                Element n = (Element) list.item(i);
+                existing.putIfAbsent(n.getAttribute("name"), n);
+            }
+            for (var e : updates.entrySet()) {
+                Element target = existing.get(e.getKey());
+                if (target == null) {
+                    target = doc.createElement("string");
+                    target.setAttribute("name", e.getKey());
+                    resources.appendChild(target);
+                    existing.put(e.getKey(), target);
+                }
+                if (markupKeys.contains(e.getKey())) setMarkupContent(docBuilder, target, e.getValue());
+                else target.setTextContent(MultilingualStringCodec.encode(e.getValue()));
+            }
+            cleanEmptyTextNodes(resources);
+            // 手动缩进：Transformer 的 INDENT 会在混合内容（如 xliff:g 占位符）两侧插入空白，改变字符串内容
+            indentElementContent(resources, 0);
+
+            var tf = TransformerFactory.newInstance().newTransformer();
+            tf.setOutputProperty(OutputKeys.INDENT, "no");
+            tf.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            tf.setOutputProperty(OutputKeys.METHOD, "xml");
+            tf.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            try (var writer = java.nio.file.Files.newBufferedWriter(stringsFile.toPath(), java.nio.charset.StandardCharsets.UTF_8)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+                tf.transform(new DOMSource(doc), new StreamResult(writer));
+                writer.write("\n");
+            }
+            return exists;
+        } catch (Exception e) {
+            throw new MultilingualException("Failed to write " + stringsFile.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 用 strings.xml 标记（可包含 xliff:g 占位符）替换元素内容，并确保根元素声明 xliff 命名空间
+     */
+    private void setMarkupContent(javax.xml.parsers.DocumentBuilder docBuilder, Element target, String markup) throws Exception {
+        var root = target.getOwnerDocument().getDocumentElement();
+        if (markup.contains("<xliff:") && !root.hasAttribute("xmlns:xliff")) {
+            root.setAttribute("xmlns:xliff", MultilingualXliff.ANDROID_XLIFF_NS);
+        }
+        var fragment = docBuilder.parse(new org.xml.sax.InputSource(new java.io.StringReader(
+                "<string xmlns:xliff=\"" + MultilingualXliff.ANDROID_XLIFF_NS + "\">" + markup + "</string>")));
+        encodeTextNodes(fragment.getDocumentElement(), true, true);
+        while (target.hasChildNodes()) target.removeChild(target.getFirstChild());
+        NodeList children = fragment.getDocumentElement().getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            target.appendChild(target.getOwnerDocument().importNode(children.item(i), true));
+        }
+    }
+
+    /**
+     * 对标记中的文本节点做 Android 转义编码；只有整个字符串开头 / 结尾的文本节点按首尾规则处理
+     */
+    private void encodeTextNodes(Node node, boolean atStart, boolean atEnd) {
+        NodeList children = node.getChildNodes();
+        int last = children.getLength() - 1;
+        for (int i = 0; i <= last; i++) {
+            Node child = children.item(i);
+            boolean childAtStart = atStart && i == 0;
+            boolean childAtEnd = atEnd && i == last;
+            if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                child.setNodeValue(MultilingualStringCodec.encode(child.getNodeValue(), childAtStart, childAtEnd));
+            } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                encodeTextNodes(child, childAtStart, childAtEnd);
+            }
+        }
+    }
+
+    private void cleanEmptyTextNodes(Node node) {
+        // 混合内容（文本与内联元素并存）中的空白属于字符串内容，保持不变
+        if (hasTextContent(node)) return;
+        NodeList childNodes = node.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node child = childNodes.item(i);
+            if (child.getNodeType() == Node.TEXT_NODE) {
+                if (child.getTextContent().trim().isEmpty()) {
+                    node.removeChild(child);
+                    i--;
+                }
+            } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                cleanEmptyTextNodes(child);
+            }
+        }
+    }
+
+    private static boolean hasTextContent(Node node) {
+        NodeList childNodes = node.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node child = childNodes.item(i);
+            if ((child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE)
+                    && !child.getTextContent().trim().isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 以 4 个空格缩进只包含元素 / 注释的节点，含文本的节点（string 等）内容保持原样
+     */
+    private void indentElementContent(Node node, int level) {
+        if (!node.hasChildNodes() || hasTextContent(node)) return;
+        var doc = node.getOwnerDocument();
+        String childIndent = "\n" + "    ".repeat(level + 1);
+        List<Node> children = new ArrayList<>();
+        NodeList childNodes = node.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) children.add(childNodes.item(i));
+        for (Node child : children) {
+            node.insertBefore(doc.createTextNode(childIndent), child);
+            if (child.getNodeType() == Node.ELEMENT_NODE) indentElementContent(child, level + 1);
+        }
+        node.appendChild(doc.createTextNode("\n" + "    ".repeat(level)));
+    }
+
+}
+
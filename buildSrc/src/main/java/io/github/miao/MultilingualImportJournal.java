@@ -0,0 +1,192 @@
+package io.github.miao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入日志：generateTranslations 在 build/intermediates/multilingual/import-journal.bin 中记录本次导入
+ * 已处理的工作表行范围与语言，以及每个已提交（写入完成）的资源文件及其内容哈希。
+ * - 每写完一个资源文件即提交一批并落盘（先写临时文件再替换），中途失败或进程被终止时已提交的部分保留
+ * - 各语言的写入线程可并发提交（{@link #commit} 与 {@link #isCommitted} 线程安全）
+ * - 使用 -Presume 重新执行时，输入文件与参数一致、工作表行范围一致的前提下，
+ *   内容哈希仍与日志相同的资源文件直接跳过，从最后一个已提交的批次之后继续
+ * - 续传只作用于写入阶段：工作表仍会全部重新读取与匹配（读取结果不落盘），
+ *   读取阶段失败时尚未提交任何文件，续传没有可跳过的内容
+ * - 导入成功后删除日志
+ *
+ * 文件布局（大端）：magic, version, identity, 工作表[名称, 首行, 末行, 语言[]], 已提交文件[路径, 哈希]
+ */
+public class MultilingualImportJournal {
+    public static final String FILE_NAME = "import-journal.bin";
+    private static final int MAGIC = 0x4D4C494A; // "MLIJ"
+    private static final int VERSION = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 已处理的工作表行范围
+     */
+    public record SheetRange(String sheet, int firstRow, int lastRow, List<String> locales) {
+    }
+
+    private final File file;
+    private final String identity;
+    private final List<SheetRange> sheets = new ArrayList<>();
+    private final Map<String, Long> committed = new LinkedHashMap<>();
+    // 上次未完成导入的记录，仅在 -Presume 且 identity 一致时加载
+    private final List<SheetRange> previousSheets;
+    private Map<String, Long> resumable;
+
+    private MultilingualImportJournal(File file, String identity, List<SheetRange> previousSheets, Map<String, Long> resumable) {
+        this.file = file;
+        this.identity = identity;
+        this.previousSheets = previousSheets;
+        this.resumable = resumable;
+    }
+
+    /**
+     * 开始一次导入
+     * @param identity 输入文件与导入参数的标识，不一致时不续传
+     * @param resume 是否从上次未完成的导入继续；为 false 时丢弃已有日志
+     */
+    public static MultilingualImportJournal begin(File file, String identity, boolean resume) {
+        List<SheetRange> previousSheets = new ArrayList<>();
+        Map<String, Long> resumable = new LinkedHashMap<>();
+        if (resume && file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                if (in.readInt() == MAGIC && in.readInt() == VERSION && identity.equals(in.readUTF())) {
+                    int sheetCount = in.readInt();
+                    for (int i = 0; i < sheetCount; i++) {
+                        String name = in.readUTF();
+                        int firstRow = in.readInt();
+                        int lastRow = in.readInt();
+                        List<String> locales = new ArrayList<>();
+                        int localeCount = in.readInt();
+                        for (int j = 0; j < localeCount; j++) locales.add(in.readUTF());
+                        previousSheets.add(new SheetRange(name, firstRow, lastRow, locales));
+                    }
+                    int fileCount = in.readInt();
+                    for (int i = 0; i < fileCount; i++) resumable.put(in.readUTF(), in.readLong());
+                }
+            } catch (IOException e) {
+                previousSheets.clear();
+                resumable.clear();
+            }
+        }
+        if (!resume) file.delete();
+        return new MultilingualImportJournal(file, identity, previousSheets, resumable);
+    }
+
+    /**
+     * @return 上次导入已提交、可跳过的资源文件数量
+     */
+    public int getResumableCount() {
+        return resumable.size();
+    }
+
+    /**
+     * 记录一个已处理完的工作表
+     */
+    public void recordSheet(String sheet, int firstRow, int lastRow, Collection<String> locales) {
+        sheets.add(new SheetRange(sheet, firstRow, lastRow, List.copyOf(locales)));
+    }
+
+    /**
+     * 所有工作表处理完、开始写入前调用：工作表行范围与上次不一致时放弃续传
+     * @return 是否可以续传
+     */
+    public boolean prepareCommit() {
+        if (resumable.isEmpty()) return false;
+        if (!sheets.equals(previousSheets)) {
+            resumable = Collections.emptyMap();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return 资源文件是否已在上次导入中提交，且之后内容未被修改
+     */
+    public synchronized boolean isCommitted(File target) {
+        Long hash = resumable.get(target.getAbsolutePath());
+        if (hash == null || !target.isFile()) return false;
+        try {
+            if (hash != hash(target)) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        committed.put(target.getAbsolutePath(), hash);
+        return true;
+    }
+
+    /**
+     * 提交一个写入完成的资源文件并立即落盘；可在写入线程中调用
+     */
+    public synchronized void commit(File target) throws IOException {
+        committed.put(target.getAbsolutePath(), hash(target));
+        save();
+    }
+
+    /**
+     * 导入成功：删除日志
+     */
+    public void complete() {
+        file.delete();
+    }
+
+    private void save() throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(identity);
+            out.writeInt(sheets.size());
+            for (SheetRange s : sheets) {
+                out.writeUTF(s.sheet());
+                out.writeInt(s.firstRow());
+                out.writeInt(s.lastRow());
+                out.writeInt(s.locales().size());
+                for (String locale : s.locales()) out.writeUTF(locale);
+            }
+            out.writeInt(committed.size());
+            for (var e : committed.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 文件内容的 64 位 FNV-1a 哈希，流式读取
+     * - 不使用内存映射：映射在 GC 前不释放，Windows 上会锁住文件，之后无法改写或删除
+     */
+    static long hash(File target) throws IOException {
+        long h = FNV_OFFSET;
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(target.toPath())) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    h ^= buf[i] & 0xff;
+                    h *= FNV_PRIME;
+                }
+            }
+        }
+        return h;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.miao;
+
+/**
+ * 引擎日志输出，消息格式与 Gradle Logger 相同（{} 占位，最后一个参数为异常时输出堆栈）。
+ * Gradle 任务中转发到任务的 Logger，Studio 插件中收集后显示在通知里。
+ * lifecycle 只输出按语言汇总的信息，逐行 / 逐单元格的明细使用 info / debug（Gradle 下 --info / --debug 时输出，默认不输出）。
+ */
+public interface MultilingualLog {
+
+    void lifecycle(String format, Object... args);
+
+    void warn(String format, Object... args);
+
+    void error(String format, Object... args);
+
+    default void info(String format, Object... args) {
+    }
+
+    default void debug(String format, Object... args) {
+    }
+
+    /**
+     * 按 {} 占位符格式化消息，供非 Gradle 的实现使用；多余的参数为异常时追加其信息
+     */
+    static String format(String format, Object... args) {
+        StringBuilder sb = new StringBuilder(format.length() + 16 * args.length);
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while ((at = format.indexOf("{}", from)) >= 0 && argIndex < args.length) {
+            sb.append(format, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        sb.append(format, from, format.length());
+        if (argIndex < args.length && args[args.length - 1] instanceof Throwable t) {
+            sb.append(": ").append(t);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.miao;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 任务耗时与计数统计：
+ * - 按阶段记录墙钟时间、调用线程的 CPU 时间与分配字节数（同名阶段多次进入时累加，嵌套阶段各自独立计时）；
+ *   阶段内提交到线程池或并行流的工作不计入 CPU 时间与分配字节数，这类阶段以墙钟时间为准
+ * - 记录行数、单元格数、解析文件数、写入文件数等计数器
+ * - 结果以 JSON 写入 build/reports/multilingual/，并可选发布为 Build Scan 自定义值
+ */
+public class MultilingualMetrics {
+
+    // 计数器名称
+    public static final String COUNTER_ROWS = "rows";
+    public static final String COUNTER_CELLS = "cells";
+    public static final String COUNTER_FILES_PARSED = "filesParsed";
+    public static final String COUNTER_FILES_WRITTEN = "filesWritten";
+
+    private static final String REPORT_DIR = "reports/multilingual";
+
+    private final String taskName;
+    private final long startWall = System.nanoTime();
+    private final Map<String, PhaseStats> phases = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    public MultilingualMetrics(String taskName) {
+        this.taskName = taskName;
+        counters.put(COUNTER_ROWS, 0L);
+        counters.put(COUNTER_CELLS, 0L);
+        counters.put(COUNTER_FILES_PARSED, 0L);
+        counters.put(COUNTER_FILES_WRITTEN, 0L);
+    }
+
+    /**
+     * 以阶段计时执行 action，异常时同样计入：
+     * <pre>metrics.run("writeWorkbook", () -> writer.write(outFile));</pre>
+     */
+    public <E extends Exception> void run(String name, Action<E> action) throws E {
+        Phase phase = new Phase(phases.computeIfAbsent(name, k -> new PhaseStats()));
+        try {
+            action.run();
+        } finally {
+            phase.stop();
+        }
+    }
+
+    /**
+     * 以阶段计时执行 body 并返回其结果，异常时同样计入：
+     * <pre>Workbook wb = metrics.call("loadWorkbook", () -> WorkbookFactory.create(file));</pre>
+     */
+    public <T, E extends Exception> T call(String name, Body<T, E> body) throws E {
+        Phase phase = new Phase(phases.computeIfAbsent(name, k -> new PhaseStats()));
+        try {
+            return body.call();
+        } finally {
+            phase.stop();
+        }
+    }
+
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public void add(String counter, long delta) {
+        counters.merge(counter, delta, Long::sum);
+    }
+
+    public long get(String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * 将统计结果写入 build/reports/multilingual/&lt;taskName&gt;.json，之后交给运行环境发布（Gradle 下按 -PmultilingualBuildScan=true 发布 Build Scan 自定义值）
+     * @return 生成的 JSON 文件；写入失败时返回 null（统计不应影响任务结果）
+     */
+    public File report(MultilingualEnvironment env) {
+        File reportFile = new File(new File(env.getBuildDir(), REPORT_DIR), taskName + ".json");
+        try {
+            Files.createDirectories(reportFile.getParentFile().toPath());
+            Files.write(reportFile.toPath(), toJson(env.getProjectPath()).getBytes(StandardCharsets.UTF_8));
+            env.getLog().lifecycle("[{}] Metrics report: {}", taskName,
+                    MultilingualUtils.getRelativePath(env.getRootDir(), reportFile));
+        } catch (IOException e) {
+            env.getLog().warn("[{}] Failed to write metrics report: {}", taskName, e.getMessage());
+            reportFile = null;
+        }
+        env.publishMetrics(this);
+        return reportFile;
+    }
+
+    /**
+     * @return 各阶段墙钟时间（&lt;阶段&gt;.wallMs）与计数器的值，用于发布 Build Scan 自定义值等
+     */
+    public Map<String, String> values() {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (var e : phases.entrySet()) values.put(e.getKey() + ".wallMs", toMillis(e.getValue().wallNanos));
+        for (var e : counters.entrySet()) values.put(e.getKey(), String.valueOf(e.getValue()));
+        return values;
+    }
+
+    /**
+     * 生成 JSON 报告内容（不依赖第三方 JSON 库）
+     */
+    public String toJson(String projectPath) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\n");
+        sb.append("  \"task\": ").append(MultilingualUtils.toJsonString(taskName)).append(",\n");
+        sb.append("  \"project\": ").append(MultilingualUtils.toJsonString(projectPath)).append(",\n");
+        sb.append("  \"timestamp\": ").append(MultilingualUtils.toJsonString(Instant.now().toString())).append(",\n");
+        sb.append("  \"totalWallMs\": ").append(toMillis(System.nanoTime() - startWall)).append(",\n");
+        sb.append("  \"phases\": {");
+        int i = 0;
+        for (var e : phases.entrySet()) {
+            PhaseStats s = e.getValue();
+            sb.append(i++ == 0 ? "\n" : ",\n");
+            sb.append("    ").append(MultilingualUtils.toJsonString(e.getKey())).append(": {")
+                    .append("\"invocations\": ").append(s.invocations)
+                    .append(", \"wallMs\": ").append(toMillis(s.wallNanos))
+                    .append(", \"callerThreadCpuMs\": ").append(s.cpuNanos < 0 ? "null" : toMillis(s.cpuNanos))
+                    .append(", \"callerThreadAllocatedBytes\": ").append(s.allocatedBytes < 0 ? "null" : String.valueOf(s.allocatedBytes))
+                    .append('}');
+        }
+        sb.append(i == 0 ? "},\n" : "\n  },\n");
+        sb.append("  \"counters\": {");
+        i = 0;
+        for (var e : counters.entrySet()) {
+            sb.append(i++ == 0 ? "\n" : ",\n");
+            sb.append("    ").append(MultilingualUtils.toJsonString(e.getKey())).append(": ").append(e.getValue());
+        }
+        sb.append(i == 0 ? "}\n" : "\n  }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private long currentCpu() {
+        try {
+            return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private long currentAllocated() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(java.util.Locale.ROOT, "%.3f", nanos / 1_000_000d);
+    }
+
+    private static final class PhaseStats {
+        int invocations;
+        long wallNanos;
+        long cpuNanos;
+        long allocatedBytes;
+    }
+
+    /**
+     * 阶段中执行的代码（无返回值）
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * 阶段中执行的代码（有返回值）
+     */
+    @FunctionalInterface
+    public interface Body<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * 单次阶段计时，stop() 时累加到对应阶段；CPU 时间与分配字节数只统计进入阶段的线程
+     */
+    private final class Phase {
+        private final PhaseStats stats;
+        private final long wall0 = System.nanoTime();
+        private final long cpu0 = currentCpu();
+        private final long alloc0 = currentAllocated();
+
+        private Phase(PhaseStats stats) {
+            this.stats = stats;
+        }
+
+        void stop() {
+            stats.invocations++;
+            stats.wallNanos += System.nanoTime() - wall0;
+            long cpu1 = currentCpu();
+            if (cpu0 < 0 || cpu1 < 0 || stats.cpuNanos < 0) stats.cpuNanos = -1;
+            else stats.cpuNanos += cpu1 - cpu0;
+            long alloc1 = currentAllocated();
+            if (alloc0 < 0 || alloc1 < 0 || stats.allocatedBytes < 0) stats.allocatedBytes = -1;
+            else stats.allocatedBytes += alloc1 - alloc0;
+        }
+    }
+}
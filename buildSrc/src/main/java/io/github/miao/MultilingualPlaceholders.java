@@ -0,0 +1,115 @@
+package io.github.miao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 占位符校验：导入时将每个单元格与基准文本的占位符签名比较，发现 %1$s、%d、xliff:g 等被改坏的翻译。
+ * 签名为排序后的 "参数序号$转换符" 列表（未指定序号的按出现顺序编号，%% 与 %n 不计入），再加上文本中 &lt;xliff:g 的数量；
+ * 基准文本来自资源文件的文本内容（不含标签），因此普通单元格中出现 &lt;xliff:g 会被判为不一致（写入后会变成转义的字面文本），
+ * 而 XLIFF 导入的标记值先去掉标签再比较格式符。
+ * 正则预编译，基准签名按 key 缓存，单元格中没有 '%' 和 '&lt;' 且基准签名为空时不做正则匹配。
+ */
+public class MultilingualPlaceholders {
+    // 不含空格标志，避免把 "100% off" 之类的普通文本识别为格式符
+    private static final Pattern FORMAT = Pattern.compile("%(?:(\\d+)\\$)?[-#+0,(<]*\\d*(?:\\.\\d+)?([tT]?[a-zA-Z%])");
+    private static final Pattern XLIFF_G = Pattern.compile("<xliff:g\\b");
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final String EMPTY = "";
+
+    /**
+     * 单个校验失败
+     */
+    public static final class Issue {
+        public final String langCode;
+        public final String key;
+        public final String expected;
+        public final String actual;
+        public final String text;
+
+        Issue(String langCode, String key, String expected, String actual, String text) {
+            this.langCode = langCode;
+            this.key = key;
+            this.expected = expected;
+            this.actual = actual;
+            this.text = text;
+        }
+    }
+
+    private final Function<String, String> baselineLookup;
+    private final Map<String, String> baselineSignatures = new HashMap<>();
+    private final List<Issue> issues = new ArrayList<>();
+    private int checked;
+
+    /**
+     * @param baselineLookup key -> 基准文本，不存在时返回 null（不校验）
+     */
+    public MultilingualPlaceholders(Function<String, String> baselineLookup) {
+        this.baselineLookup = baselineLookup;
+    }
+
+    /**
+     * 校验一个单元格，失败时记录到问题列表
+     * @param markup text 是否为原始标记（XLIFF 导入），是则去掉标签后比较
+     * @return 是否通过（基准中没有该 key 或单元格为空时视为通过）
+     */
+    public boolean check(String langCode, String key, String text, boolean markup) {
+        if (text == null || text.isEmpty()) return true;
+        String expected = baselineSignatures.computeIfAbsent(key, k -> {
+            String baseline = baselineLookup.apply(k);
+            return baseline == null ? null : signature(baseline);
+        });
+        if (expected == null) return true;
+        checked++;
+        String plain = markup && text.indexOf('<') >= 0 ? TAG.matcher(text).replaceAll("") : text;
+        String actual = expected.isEmpty() && plain.indexOf('%') < 0 && plain.indexOf('<') < 0 ? EMPTY : signature(plain);
+        if (expected.equals(actual)) return true;
+        issues.add(new Issue(langCode, key, expected, actual, text));
+        return false;
+    }
+
+    public List<Issue> getIssues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    public int getCheckedCount() {
+        return checked;
+    }
+
+    /**
+     * 计算文本的占位符签名，如 "1$d,2$s" 或 "1$s|g1"（含 1 个 xliff:g）
+     */
+    public static String signature(String text) {
+        List<String> specs = null;
+        if (text.indexOf('%') >= 0) {
+            Matcher m = FORMAT.matcher(text);
+            int sequential = 0;
+            while (m.find()) {
+                String conversion = m.group(2);
+                if ("%".equals(conversion) || "n".equals(conversion)) continue;
+                int index = m.group(1) != null ? Integer.parseInt(m.group(1)) : ++sequential;
+                if (specs == null) specs = new ArrayList<>();
+                specs.add(index + "$" + conversion.toLowerCase(java.util.Locale.ROOT));
+            }
+        }
+        int placeholders = 0;
+        if (text.indexOf('<') >= 0) {
+            Matcher m = XLIFF_G.matcher(text);
+            while (m.find()) placeholders++;
+        }
+        if (specs == null && placeholders == 0) return EMPTY;
+        StringBuilder sb = new StringBuilder();
+        if (specs != null) {
+            Collections.sort(specs);
+            sb.append(String.join(",", specs));
+        }
+        if (placeholders > 0) sb.append("|g").append(placeholders);
+        return sb.toString();
+    }
+}
@@ -2,11 +2,12 @@ package io.github.miao;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
 
 /**
  * Android 多语言插件（根/模块双态）：
  * - 根工程：创建 DSL 扩展并自动为子模块应用模块级插件（MultilingualModulePlugin）
- * - 子模块：注册 generateTranslations / generateExcel 任务，并按配置接入 preBuild
+ * - 子模块：注册 generateTranslations / generateExcel / translationCoverage 任务，并按配置接入 preBuild
  */
 public class MultilingualPlugin implements Plugin<Project> {
     @Override
@@ -41,6 +42,11 @@ public class MultilingualPlugin implements Plugin<Project> {
                         task.getExportDir().set(moduleExt.exportDir);
                         task.getExportFilePattern().set(moduleExt.exportFilePattern);
                         task.getExportIncludeLanguages().set(moduleExt.exportIncludeLanguages);
+                        task.getExportSheetRule().set(moduleExt.exportSheetRule);
+                    });
+
+                    project.getTasks().register("translationCoverage", MultilingualCoverageTask.class, task -> {
+                        task.getBaselineDir().set(moduleExt.baselineDir);
                     });
 
                     if (moduleExt.enable.get()) {
@@ -51,6 +57,21 @@ public class MultilingualPlugin implements Plugin<Project> {
             });
         }
     }
+
+    /**
+     * 导出 / 导入 Worker 使用的 Apache POI 依赖配置（multilingualPoi），不存在时创建；
+     * 未声明依赖时默认使用 poi-ooxml:{@value MultilingualConstants#POI_VERSION}，可在模块的 dependencies 中覆盖版本
+     */
+    static Configuration poiConfiguration(Project project) {
+        Configuration existing = project.getConfigurations().findByName(MultilingualConstants.POI_CONFIGURATION);
+        if (existing != null) return existing;
+        return project.getConfigurations().create(MultilingualConstants.POI_CONFIGURATION, c -> {
+            c.setCanBeConsumed(false);
+            c.setDescription("Apache POI used by the multilingual export/import workers");
+            c.defaultDependencies(deps -> deps.add(project.getDependencies()
+                    .create("org.apache.poi:poi-ooxml:" + MultilingualConstants.POI_VERSION)));
+        });
+    }
 }
 
 /**
@@ -74,6 +95,11 @@ class MultilingualModulePlugin implements Plugin<Project> {
             task.getExportDir().set(rootExt.exportDir);
             task.getExportFilePattern().set(rootExt.exportFilePattern);
             task.getExportIncludeLanguages().set(rootExt.exportIncludeLanguages);
+            task.getExportSheetRule().set(rootExt.exportSheetRule);
+        });
+
+        project.getTasks().register("translationCoverage", MultilingualCoverageTask.class, task -> {
+            task.getBaselineDir().set(rootExt.baselineDir);
         });
 
         if (rootExt.enable.get()) {
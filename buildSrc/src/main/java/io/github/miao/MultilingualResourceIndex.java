@@ -0,0 +1,311 @@
+package io.github.miao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * res 目录下多资源文件索引：
+ * - 扫描一个或多个 res 目录（如各源集的 res）中每个 values / values-* 目录下的全部 *.xml（不只是 strings.xml），并行解析其中的 string 条目
+ * - 记录每个 values 目录内 key 所属的文件（多个 res 目录时排在前面的优先），导入时把更新写回该文件
+ * - 以文件路径 + 修改时间 + 大小为键缓存解析结果，未变化的文件不会重复解析
+ */
+public class MultilingualResourceIndex {
+    // 2：缓存的文本为 Android 转义解码后的显示文本
+    private static final int CACHE_VERSION = 2;
+
+    private final File primaryResDir;
+    private final Map<String, List<ResourceFile>> dirToFiles = new LinkedHashMap<>();
+    private final Map<String, Map<String, File>> dirToOwners = new HashMap<>();
+    private int parsedCount;
+    private int cachedCount;
+
+    private MultilingualResourceIndex(File primaryResDir) {
+        this.primaryResDir = primaryResDir;
+    }
+
+    /**
+     * 扫描单个 res 目录
+     * @see #scan(List, Predicate, File)
+     */
+    public static MultilingualResourceIndex scan(File resDir, Predicate<String> dirFilter, File cacheFile) {
+        return scan(Collections.singletonList(resDir), dirFilter, cacheFile);
+    }
+
+    /**
+     * 扫描多个 res 目录，全部文件在同一轮并行解析
+     * @param resDirs res 目录列表，第一个为主目录（新文件默认写入此处）
+     * @param dirFilter values 目录名过滤（如只扫描部分语言），为 null 时扫描全部 values / values-*
+     * @param cacheFile 解析结果缓存文件，为 null 时不使用缓存
+     */
+    public static MultilingualResourceIndex scan(List<File> resDirs, Predicate<String> dirFilter, File cacheFile) {
+        MultilingualResourceIndex index = new MultilingualResourceIndex(resDirs.get(0));
+        List<File> xmlFiles = new ArrayList<>();
+        for (File resDir : resDirs) {
+            File[] dirs = resDir.listFiles(f -> f.isDirectory()
+                    && (f.getName().equals("values") || f.getName().startsWith(MultilingualConstants.VALUES_PREFIX))
+                    && (dirFilter == null || dirFilter.test(f.getName())));
+            if (dirs == null) continue;
+            Arrays.sort(dirs);
+            for (File dir : dirs) {
+                File[] files = dir.listFiles(f -> f.isFile() && f.getName().endsWith(".xml"));
+                if (files == null || files.length == 0) continue;
+                sortOwnershipOrder(files);
+                xmlFiles.addAll(Arrays.asList(files));
+            }
+        }
+        if (xmlFiles.isEmpty()) return index;
+
+        Map<String, ResourceFile> cache = cacheFile != null ? readCache(cacheFile) : new HashMap<>();
+
+        // 并行解析发生变化的文件，其余直接复用缓存
+        Map<File, ResourceFile> scanned = new ConcurrentHashMap<>();
+        AtomicInteger parsed = new AtomicInteger();
+        xmlFiles.parallelStream().forEach(f -> {
+            ResourceFile cached = cache.get(f.getAbsolutePath());
+            if (cached != null && cached.lastModified == f.lastModified() && cached.length == f.length()) {
+                scanned.put(f, cached);
+            } else {
+                scanned.put(f, parse(f));
+                parsed.incrementAndGet();
+            }
+        });
+        index.parsedCount = parsed.get();
+        index.cachedCount = xmlFiles.size() - parsed.get();
+
+        for (File f : xmlFiles) {
+            ResourceFile rf = scanned.get(f);
+            if (rf.keys.length == 0) continue;
+            String dirName = f.getParentFile().getName();
+            index.dirToFiles.computeIfAbsent(dirName, k -> new ArrayList<>()).add(rf);
+            Map<String, File> owners = index.dirToOwners.computeIfAbsent(dirName, k -> new HashMap<>());
+            for (String key : rf.keys) owners.putIfAbsent(key, f);
+        }
+
+        if (cacheFile != null) {
+            for (var e : scanned.entrySet()) cache.put(e.getKey().getAbsolutePath(), e.getValue());
+            writeCache(cacheFile, cache);
+        }
+        return index;
+    }
+
+    /**
+     * 将某个 values 目录下全部文件的 string 条目加载到 catalog；
+     * 同一 key 在多个文件中定义时保留第一个（与 key 归属一致）
+     * @return 加载的条目数
+     */
+    public int loadInto(MultilingualCatalog catalog, String locale, String dirName) {
+        int count = 0;
+        for (ResourceFile rf : dirToFiles.getOrDefault(dirName, Collections.emptyList())) {
+            for (int i = 0; i < rf.keys.length; i++) {
+                if (catalog.contains(locale, rf.keys[i])) continue;
+                catalog.put(locale, rf.keys[i], rf.values[i]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 按扫描顺序遍历某个 values 目录下全部文件的 string 条目；同一 key 只回调第一次定义。
+     * 只读访问，可在多个线程中对不同目录并行调用
+     */
+    public void forEachString(String dirName, BiConsumer<String, String> consumer) {
+        Set<String> seen = new HashSet<>();
+        for (ResourceFile rf : dirToFiles.getOrDefault(dirName, Collections.emptyList())) {
+            for (int i = 0; i < rf.keys.length; i++) {
+                if (seen.add(rf.keys[i])) consumer.accept(rf.keys[i], rf.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return 包含 string 条目的 values 目录名（按扫描顺序）
+     */
+    public List<String> stringDirs() {
+        return new ArrayList<>(dirToFiles.keySet());
+    }
+
+    public boolean hasStrings(String dirName) {
+        return dirToFiles.containsKey(dirName);
+    }
+
+    /**
+     * @return 目录内包含 string 条目的文件（strings.xml 优先，其余按文件名排序）
+     */
+    public List<File> files(String dirName) {
+        List<File> files = new ArrayList<>();
+        for (ResourceFile rf : dirToFiles.getOrDefault(dirName, Collections.emptyList())) files.add(rf.file);
+        return files;
+    }
+
+    /**
+     * @return 目录内定义该 key 的文件；未定义时返回 null
+     */
+    public File ownerOf(String dirName, String key) {
+        Map<String, File> owners = dirToOwners.get(dirName);
+        return owners == null ? null : owners.get(key);
+    }
+
+    /**
+     * @return 目录内定义的全部 key（副本，不随之后记录的新 key 变化）；目录没有 string 条目时为空集合
+     */
+    public Set<String> keySet(String dirName) {
+        Map<String, File> owners = dirToOwners.get(dirName);
+        return owners == null ? Collections.emptySet() : new HashSet<>(owners.keySet());
+    }
+
+    /**
+     * 记录新写入的 key 所属文件，保证同一次导入中后续查找一致
+     */
+    public void recordOwner(String dirName, String key, File file) {
+        dirToOwners.computeIfAbsent(dirName, k -> new HashMap<>()).putIfAbsent(key, file);
+    }
+
+    /**
+     * 确定 key 在目标目录中应写入的文件：
+     * 1. 目标目录中已定义该 key 的文件
+     * 2. 参考目录（如基准目录）中定义该 key 的文件在同一 res 目录下的同名文件
+     * 3. 主 res 目录下的 strings.xml
+     */
+    public File resolveTargetFile(String targetDirName, String key, List<String> referenceDirs) {
+        File owner = ownerOf(targetDirName, key);
+        if (owner != null) return owner;
+        for (String ref : referenceDirs) {
+            File refOwner = ref == null ? null : ownerOf(ref, key);
+            if (refOwner != null) {
+                File refResDir = refOwner.getParentFile().getParentFile();
+                return new File(new File(refResDir, targetDirName), refOwner.getName());
+            }
+        }
+        return new File(new File(primaryResDir, targetDirName), MultilingualConstants.STRINGS_XML);
+    }
+
+    public int getParsedCount() {
+        return parsedCount;
+    }
+
+    public int getCachedCount() {
+        return cachedCount;
+    }
+
+    private static void sortOwnershipOrder(File[] files) {
+        Arrays.sort(files, (a, b) -> {
+            boolean aStrings = MultilingualConstants.STRINGS_XML.equals(a.getName());
+            boolean bStrings = MultilingualConstants.STRINGS_XML.equals(b.getName());
+            if (aStrings != bStrings) return aStrings ? -1 : 1;
+            return a.getName().compareTo(b.getName());
+        });
+    }
+
+    private static ResourceFile parse(File file) {
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        try {
+            MultilingualUtils.forEachString(file, (k, v) -> {
+                keys.add(k);
+                values.add(v);
+            });
+        } catch (MultilingualException e) {
+            throw new MultilingualException("Failed to parse resource file " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return new ResourceFile(file, file.lastModified(), file.length(),
+                keys.toArray(new String[0]), values.toArray(new String[0]));
+    }
+
+    private static Map<String, ResourceFile> readCache(File cacheFile) {
+        Map<String, ResourceFile> cache = new HashMap<>();
+        if (!cacheFile.isFile()) return cache;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != CACHE_VERSION) return cache;
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                File file = new File(readString(in));
+                long lastModified = in.readLong();
+                long length = in.readLong();
+                int n = in.readInt();
+                String[] keys = new String[n];
+                String[] values = new String[n];
+                for (int j = 0; j < n; j++) {
+                    keys[j] = readString(in);
+                    values[j] = readString(in);
+                }
+                cache.put(file.getAbsolutePath(), new ResourceFile(file, lastModified, length, keys, values));
+            }
+        } catch (IOException e) {
+            // 缓存损坏时全部重新解析
+            cache.clear();
+        }
+        return cache;
+    }
+
+    private static void writeCache(File cacheFile, Map<String, ResourceFile> cache) {
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile.toPath())))) {
+                List<ResourceFile> live = new ArrayList<>();
+                for (ResourceFile rf : cache.values()) if (rf.file.isFile()) live.add(rf);
+                out.writeInt(CACHE_VERSION);
+                out.writeInt(live.size());
+                for (ResourceFile rf : live) {
+                    writeString(out, rf.file.getAbsolutePath());
+                    out.writeLong(rf.lastModified);
+                    out.writeLong(rf.length);
+                    out.writeInt(rf.keys.length);
+                    for (int j = 0; j < rf.keys.length; j++) {
+                        writeString(out, rf.keys[j]);
+                        writeString(out, rf.values[j]);
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+            // 缓存写入失败不影响任务结果
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class ResourceFile {
+        final File file;
+        final long lastModified;
+        final long length;
+        final String[] keys;
+        final String[] values;
+
+        ResourceFile(File file, long lastModified, long length, String[] keys, String[] values) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.miao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 行完整性校验：导出时在隐藏的 {@link MultilingualConstants#HASH_COLUMN_HEADER} 列写入每行 key 与基准文本的哈希，
+ * 表头记录计算哈希所用的基准目录（exportLineDir），导入时用该目录当前的文本重新计算并比较，将每行分为：
+ * - current：哈希一致，翻译基于当前的基准文本
+ * - stale：哈希不一致（导出后基准文本被修改，或 key 已不在基准中），翻译可能已过时
+ * - new：没有哈希（翻译方新增的行，或工作簿没有哈希列）
+ * 每行只计算一次 64 位哈希，不需要保存或读取历史基准文本
+ */
+public class MultilingualRowIntegrity {
+    public enum Status { CURRENT, STALE, NEW }
+
+    /**
+     * 过时的行
+     */
+    public static final class StaleRow {
+        public final String sheet;
+        // Excel 中的行号（从 1 开始）
+        public final int row;
+        public final String key;
+
+        StaleRow(String sheet, int row, String key) {
+            this.sheet = sheet;
+            this.row = row;
+            this.key = key;
+        }
+    }
+
+    private final List<StaleRow> staleRows = new ArrayList<>();
+    private int current;
+    private int fresh;
+
+    /**
+     * @return 哈希列的表头，记录计算哈希所用的基准目录
+     */
+    public static String header(String baselineDir) {
+        return MultilingualConstants.HASH_COLUMN_HEADER + ":" + baselineDir;
+    }
+
+    /**
+     * @return 表头为哈希列时返回计算哈希所用的基准目录（旧版本导出的 "#hash" 表头返回空字符串），不是哈希列时返回 null
+     */
+    public static String headerDir(String headerCell) {
+        if (headerCell == null) return null;
+        String text = headerCell.trim();
+        if (text.equals(MultilingualConstants.HASH_COLUMN_HEADER)) return "";
+        if (!text.startsWith(MultilingualConstants.HASH_COLUMN_HEADER + ":")) return null;
+        return text.substring(MultilingualConstants.HASH_COLUMN_HEADER.length() + 1).trim();
+    }
+
+    /**
+     * @return 写入隐藏列的行哈希（16 位十六进制）
+     */
+    public static String rowHash(String key, String baselineText) {
+        long h = MultilingualSnapshot.hash(key);
+        h = h * 31 + MultilingualSnapshot.hash(baselineText == null ? "" : baselineText.trim());
+        return String.format(Locale.ROOT, "%016x", h);
+    }
+
+    /**
+     * 校验一行并计数，过时的行记录到列表
+     * @param hashCell 隐藏列中的哈希，null 或空表示没有哈希
+     * @param rowNum Excel 中的行号（从 0 开始）
+     * @param baselineLookup key -> 哈希列表头所记录目录中的当前文本，不存在时返回 null
+     */
+    public Status classify(String sheet, int rowNum, String key, String hashCell, Function<String, String> baselineLookup) {
+        if (hashCell == null || hashCell.isBlank()) {
+            fresh++;
+            return Status.NEW;
+        }
+        String baseline = baselineLookup.apply(key);
+        if (baseline != null && rowHash(key, baseline).equalsIgnoreCase(hashCell.trim())) {
+            current++;
+            return Status.CURRENT;
+        }
+        staleRows.add(new StaleRow(sheet, rowNum + 1, key));
+        return Status.STALE;
+    }
+
+    public int getCurrentCount() {
+        return current;
+    }
+
+    public int getNewCount() {
+        return fresh;
+    }
+
+    public List<StaleRow> getStaleRows() {
+        return Collections.unmodifiableList(staleRows);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.miao;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 工作簿读取：将每个工作表的单元格文本读取为纯数据（表头 + 数据行），后续的 key 匹配按工作表顺序进行。
+ * 工作表按顺序逐个读取：同一工作簿的工作表共享 SharedStringsTable、StylesTable 等状态，POI 的 Workbook 不是线程安全的，
+ * 并行只在读取完成后的按语言写入阶段进行。
+ * 单元格通过 {@link MultilingualCellDecoder} 解码，无法解码的单元格记为诊断信息而不中断读取。
+ */
+public class MultilingualSheetReader {
+
+    /**
+     * 单个工作表的数据
+     */
+    public static final class SheetData {
+        public final String name;
+        public final int index;
+        // 表头各列文本，null 表示工作表没有表头行
+        public final String[] header;
+        public final List<RowData> rows;
+        // 无法解码的单元格（行列号从 1 开始），这些单元格视为缺失
+        public final List<String> diagnostics;
+        // 按数字 / 布尔值 / 公式结果解码的单元格数量
+        public final int typedCells;
+
+        SheetData(String name, int index, String[] header, List<RowData> rows) {
+            this(name, index, header, rows, Collections.emptyList(), 0);
+        }
+
+        SheetData(String name, int index, String[] header, List<RowData> rows, List<String> diagnostics, int typedCells) {
+            this.name = name;
+            this.index = index;
+            this.header = header;
+            this.rows = rows;
+            this.diagnostics = diagnostics;
+            this.typedCells = typedCells;
+        }
+    }
+
+    /**
+     * 单行数据
+     */
+    public static final class RowData {
+        // Excel 中的行号（从 0 开始）
+        public final int rowNum;
+        // 各列文本，缺失的单元格为 null
+        public final String[] cells;
+
+        RowData(int rowNum, String[] cells) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+        }
+
+        public String cell(int col) {
+            return col < cells.length ? cells[col] : null;
+        }
+    }
+
+    private MultilingualSheetReader() {
+    }
+
+    /**
+     * 读取工作簿中的全部工作表
+     * @param wb 工作簿
+     * @return 按工作表顺序排列的数据
+     */
+    public static List<SheetData> readAll(Workbook wb) {
+        int sheetCount = wb.getNumberOfSheets();
+        List<SheetData> result = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) result.add(readSheet(wb.getSheetAt(i), i));
+        return result;
+    }
+
+    private static SheetData readSheet(Sheet sheet, int index) {
+        MultilingualCellDecoder decoder = new MultilingualCellDecoder(sheet.getSheetName());
+        Row headerRow = sheet.getRow(0);
+        String[] header = headerRow == null ? null : readRow(decoder, headerRow);
+        List<RowData> rows = new ArrayList<>();
+        for (int rowNum = 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
+            Row row = sheet.getRow(rowNum);
+            if (row == null) continue;
+            rows.add(new RowData(rowNum, readRow(decoder, row)));
+        }
+        return new SheetData(sheet.getSheetName(), index, header, rows, decoder.getDiagnostics(), decoder.getTypedCount());
+    }
+
+    private static String[] readRow(MultilingualCellDecoder decoder, Row row) {
+        int last = Math.max(row.getLastCellNum(), 0);
+        String[] cells = new String[last];
+        for (int col = 0; col < last; col++) {
+            var cell = row.getCell(col);
+            if (cell == null) continue;
+            cells[col] = decoder.decode(cell, row.getRowNum(), col);
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.miao;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导出快照：generateExcel 在工作簿旁写入的二进制文件（&lt;工作簿文件名&gt;.snap），记录导出时的
+ * key 表、各语言的值和内容哈希，以及基准目录资源文件的修改时间与大小。
+ * generateTranslations 一次性读入堆内缓冲区（不使用内存映射，见 {@link MultilingualImportJournal#hash}）：
+ * - 单元格文本与导出时相同（哈希一致且内容相同）时跳过写入，只处理翻译方实际修改的单元格
+ * - 基准目录文件未变化时，直接用快照中的基准列按文本查找 key，无需重新加载基准 strings.xml
+ *
+ * 文件布局（大端）：
+ * magic, version, baselineDir, 基准语言, 文件戳[], 语言[], key[], 哈希 long[语言数 * key数], 值偏移 int[语言数 * key数], 值数据
+ */
+public class MultilingualSnapshot {
+    public static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x4D4C534E; // "MLSN"
+    // 2：值为 Android 转义解码后的显示文本；3：头部记录基准语言
+    private static final int VERSION = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ByteBuffer buffer;
+    private final String baselineDir;
+    // 基准列在语言表中的序号，没有基准列时为 -1
+    private final int baselineLocale;
+    private final String[] stampPaths;
+    private final long[] stampModified;
+    private final long[] stampLength;
+    private final Map<String, Integer> localeIndex = new HashMap<>();
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+    private final String[] keys;
+    private final int hashesOffset;
+    private final int offsetsOffset;
+    private final int valuesOffset;
+    private Map<Long, Integer> baselineReverse;
+
+    private MultilingualSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) throw new IllegalStateException("Unsupported snapshot");
+        baselineDir = readString(buffer);
+        String baselineCode = readString(buffer);
+        int stampCount = buffer.getInt();
+        stampPaths = new String[stampCount];
+        stampModified = new long[stampCount];
+        stampLength = new long[stampCount];
+        for (int i = 0; i < stampCount; i++) {
+            stampPaths[i] = readString(buffer);
+            stampModified[i] = buffer.getLong();
+            stampLength[i] = buffer.getLong();
+        }
+        int localeCount = buffer.getInt();
+        for (int i = 0; i < localeCount; i++) localeIndex.put(readString(buffer), i);
+        baselineLocale = localeIndex.getOrDefault(baselineCode, -1);
+        int keyCount = buffer.getInt();
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = readString(buffer);
+            keyIndex.putIfAbsent(keys[i], i);
+        }
+        hashesOffset = buffer.position();
+        offsetsOffset = hashesOffset + localeCount * keyCount * Long.BYTES;
+        valuesOffset = offsetsOffset + localeCount * keyCount * Integer.BYTES;
+    }
+
+    /**
+     * @return 工作簿对应的快照文件
+     */
+    public static File fileFor(File workbook) {
+        return new File(workbook.getParentFile(), workbook.getName() + SUFFIX);
+    }
+
+    /**
+     * 读取快照（整个文件读入堆内，不持有文件句柄）
+     * @return 快照；文件不存在或格式不兼容时返回 null
+     */
+    public static MultilingualSnapshot open(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return new MultilingualSnapshot(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写出快照
+     * @param baselineLocale 基准列的语言代码（导入时按该列文本查找 key）
+     * @param locales 语言列
+     * @param keyCount 导出的 key 数量（catalog 中序号 0..keyCount-1）
+     * @param baselineFiles 基准目录下的资源文件，用于导入时判断基准是否变化
+     */
+    public static void write(File file, String baselineDir, String baselineLocale, List<String> locales, MultilingualCatalog catalog,
+                             int keyCount, List<File> baselineFiles) throws IOException {
+        int cells = locales.size() * keyCount;
+        long[] hashes = new long[cells];
+        int[] offsets = new int[cells];
+        ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+        DataOutputStream values = new DataOutputStream(valueBytes);
+        for (int l = 0; l < locales.size(); l++) {
+            for (int k = 0; k < keyCount; k++) {
+                int cell = l * keyCount + k;
+                String value = catalog.get(locales.get(l), k);
+                hashes[cell] = hash(value == null ? "" : value.trim());
+                if (value == null) {
+                    offsets[cell] = -1;
+                } else {
+                    offsets[cell] = values.size();
+                    writeString(values, value);
+                }
+            }
+        }
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, baselineDir);
+            writeString(out, baselineLocale);
+            out.writeInt(baselineFiles.size());
+            for (File f : baselineFiles) {
+                writeString(out, f.getAbsolutePath());
+                out.writeLong(f.lastModified());
+                out.writeLong(f.length());
+            }
+            out.writeInt(locales.size());
+            for (String locale : locales) writeString(out, locale);
+            out.writeInt(keyCount);
+            for (int k = 0; k < keyCount; k++) writeString(out, catalog.keyAt(k));
+            for (long h : hashes) out.writeLong(h);
+            for (int o : offsets) out.writeInt(o);
+            valueBytes.writeTo(out);
+        }
+    }
+
+    /**
+     * @return 基准目录名与资源文件（路径、修改时间、大小）是否与导出时一致
+     */
+    public boolean matchesBaseline(String dirName, List<File> files) {
+        if (!baselineDir.equals(dirName) || files.size() != stampPaths.length) return false;
+        for (int i = 0; i < stampPaths.length; i++) {
+            File f = files.get(i);
+            if (!f.getAbsolutePath().equals(stampPaths[i]) || f.lastModified() != stampModified[i] || f.length() != stampLength[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int keyCount() {
+        return keys.length;
+    }
+
+    /**
+     * 单元格文本（已 trim）是否与导出时相同
+     */
+    public boolean isUnchanged(String locale, String key, String text) {
+        Integer l = localeIndex.get(locale);
+        Integer k = keyIndex.get(key);
+        if (l == null || k == null) return false;
+        int cell = l * keys.length + k;
+        if (buffer.getLong(hashesOffset + cell * Long.BYTES) != hash(text)) return false;
+        String value = valueAt(cell);
+        return (value == null ? "" : value.trim()).equals(text);
+    }
+
+    /**
+     * 按基准列文本查找 key（文本相同时取序号最小的 key，与 {@link MultilingualCatalog#findKeyByValue} 一致）
+     * @return key；找不到时返回 null
+     */
+    public String findKeyByBaselineValue(String text) {
+        if (baselineLocale < 0) return null;
+        int base = baselineLocale * keys.length;
+        if (baselineReverse == null) {
+            baselineReverse = new HashMap<>();
+            for (int k = 0; k < keys.length; k++) {
+                if (buffer.getInt(offsetsOffset + (base + k) * Integer.BYTES) >= 0) {
+                    baselineReverse.putIfAbsent(buffer.getLong(hashesOffset + (base + k) * Long.BYTES), k);
+                }
+            }
+        }
+        long h = hash(text.trim());
+        Integer k = baselineReverse.get(h);
+        if (k == null) return null;
+        if (text.equals(valueAt(base + k))) return keys[k];
+        // 哈希基于 trim 后的文本，前后空白不同或哈希冲突时在同哈希的 key 中逐个比对
+        for (int i = k + 1; i < keys.length; i++) {
+            if (buffer.getLong(hashesOffset + (base + i) * Long.BYTES) == h && text.equals(valueAt(base + i))) return keys[i];
+        }
+        return null;
+    }
+
+    private String valueAt(int cell) {
+        int offset = buffer.getInt(offsetsOffset + cell * Integer.BYTES);
+        if (offset < 0) return null;
+        int position = valuesOffset + offset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 64 位 FNV-1a 哈希（按 UTF-16 字符）
+     */
+    static long hash(String text) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.miao;
+
+/**
+ * Android 字符串资源转义编解码，导出与导入对称使用：
+ * - decode：资源文件中的原始文本（DOM 文本内容）→ 显示文本，处理 \' \" \\ \n \t \@ \? \\uXXXX 转义、
+ *   未转义双引号（引号内保留空白）以及引号外空白合并、首尾空白裁剪
+ * - encode：显示文本 → 可写入 &lt;string&gt; 的文本，XML 字符（&amp;、&lt;）由 DOM 序列化时转义，此处不处理
+ *
+ * 对任意文本满足 decode(encode(s)) == s。两者都是单次遍历；不需要转换时直接返回原字符串，不分配内存。
+ * 以 @ / ? 开头且形如资源引用（如 @string/app_name、?attr/colorPrimary）的文本保持引用语义，不转义。
+ */
+public final class MultilingualStringCodec {
+
+    private MultilingualStringCodec() {
+    }
+
+    /**
+     * 解码完整的字符串资源文本
+     */
+    public static String decode(String raw) {
+        return decode(raw, true, true);
+    }
+
+    /**
+     * 解码字符串资源中的一段文本（如 xliff:g 等内联元素之间的文本）
+     * @param atStart 是否位于整个字符串开头（开头空白被裁剪）
+     * @param atEnd 是否位于整个字符串结尾（结尾空白被裁剪）
+     */
+    public static String decode(String raw, boolean atStart, boolean atEnd) {
+        if (raw == null || !needsDecode(raw, atStart, atEnd)) return raw;
+        int n = raw.length();
+        StringBuilder sb = new StringBuilder(n);
+        boolean quoted = false;
+        // 引号外的空白先挂起，遇到下一个字符时合并为一个空格输出
+        boolean pendingSpace = false;
+        for (int i = 0; i < n; i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < n) {
+                if (pendingSpace && (sb.length() > 0 || !atStart)) sb.append(' ');
+                pendingSpace = false;
+                char next = raw.charAt(++i);
+                switch (next) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        int code = i + 4 < n ? parseHex(raw, i + 1) : -1;
+                        if (code >= 0) {
+                            sb.append((char) code);
+                            i += 4;
+                        } else {
+                            sb.append('u');
+                        }
+                    }
+                    default -> sb.append(next);
+                }
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && isWhitespace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && (sb.length() > 0 || !atStart)) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        if (pendingSpace && !atEnd && (sb.length() > 0 || !atStart)) sb.append(' ');
+        return sb.toString();
+    }
+
+    /**
+     * 编码完整的显示文本
+     */
+    public static String encode(String text) {
+        return encode(text, true, true);
+    }
+
+    /**
+     * 编码字符串资源中的一段文本
+     * @param atStart 是否位于整个字符串开头（开头空白与 @ / ? 需要转义）
+     * @param atEnd 是否位于整个字符串结尾（结尾空白需要转义）
+     */
+    public static String encode(String text, boolean atStart, boolean atEnd) {
+        if (text == null || !needsEncode(text, atStart, atEnd)) return text;
+        int n = text.length();
+        StringBuilder sb = new StringBuilder(n + 8);
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\'' -> sb.append("\\'");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                case '\t' -> sb.append("\\t");
+                case '\r' -> sb.append("\\u000D");
+                case ' ' -> {
+                    if (isCollapsedSpace(text, i, atStart, atEnd)) sb.append("\\u0020");
+                    else sb.append(' ');
+                }
+                case '@', '?' -> {
+                    if (i == 0 && atStart) sb.append('\\');
+                    sb.append(c);
+                }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean needsDecode(String raw, boolean atStart, boolean atEnd) {
+        int n = raw.length();
+        for (int i = 0; i < n; i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n' || c == '\t' || c == '\r') return true;
+            if (c == ' ' && ((i == 0 && atStart) || (i == n - 1 && atEnd) || (i > 0 && isWhitespace(raw.charAt(i - 1))))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean needsEncode(String text, boolean atStart, boolean atEnd) {
+        int n = text.length();
+        if (n > 0 && atStart && (text.charAt(0) == '@' || text.charAt(0) == '?') && !isReference(text)) return true;
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '\'' || c == '"' || c == '\n' || c == '\t' || c == '\r') return true;
+            if (c == ' ' && isCollapsedSpace(text, i, atStart, atEnd)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 空格是否会在解码时被合并或裁剪（需要写为 \\u0020）
+     */
+    private static boolean isCollapsedSpace(String text, int i, boolean atStart, boolean atEnd) {
+        return (i == 0 && atStart) || (i == text.length() - 1 && atEnd) || (i > 0 && isWhitespace(text.charAt(i - 1)));
+    }
+
+    /**
+     * 是否形如资源引用：@[package:]type/name 或 ?[package:][type/]name
+     */
+    private static boolean isReference(String text) {
+        int n = text.length();
+        boolean slash = false;
+        for (int i = 1; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '/') {
+                if (slash || i == 1 || i == n - 1) return false;
+                slash = true;
+            } else if (!(Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == ':' || c == '+')) {
+                return false;
+            }
+        }
+        return n > 1 && (slash || text.charAt(0) == '?');
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r';
+    }
+
+    private static int parseHex(String s, int from) {
+        int value = 0;
+        for (int i = from; i < from + 4; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) return -1;
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.miao;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.ConditionalFormattingRule;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.PatternFormatting;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 流式写出导出工作簿（SXSSF），内存中只保留最近 {@link #ROW_WINDOW} 行，其余行写入临时文件：
+ * - 样式在工作簿级别创建一次并共享；只有表头单元格单独设置样式，Key 列与文本列在写入数据行之前设置列默认样式，
+ *   数据单元格不逐个设置样式（SXSSF 写出未设置样式的单元格时取列默认样式），新输入的单元格同样沿用文本格式
+ * - 冻结首行与 Key 列，表头启用筛选
+ * - 条件格式：翻译列中为空的单元格标色，不逐个设置单元格样式
+ * - 最后一列为隐藏的 {@link MultilingualConstants#HASH_COLUMN_HEADER} 列，记录每行 key 与基准列文本的哈希，
+ *   表头注明基准列所在的目录，导入时用同一目录识别导出后基准文本已变化的行（见 {@link MultilingualRowIntegrity}）
+ * - 列宽按写入文本的长度估算，不使用 autoSizeColumn（需要逐行测量字体，且 SXSSF 中只能看到窗口内的行）
+ */
+public class MultilingualWorkbookWriter implements Closeable {
+    static final int ROW_WINDOW = 200;
+    // 列宽以字符计，超长文本不再继续加宽
+    private static final int MIN_COLUMN_CHARS = 8;
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private final SXSSFWorkbook wb;
+    private final List<String> languages;
+    private final String hashHeader;
+    private final CellStyle headerStyle;
+    private final CellStyle keyStyle;
+    private final CellStyle textStyle;
+
+    /**
+     * @param languages 语言列的表头（基准语言在前）
+     * @param baselineDir 基准列文本所在的目录（exportLineDir），记录在哈希列表头中
+     */
+    public MultilingualWorkbookWriter(List<String> languages, String baselineDir) {
+        this.languages = languages;
+        this.hashHeader = MultilingualRowIntegrity.header(baselineDir);
+        this.wb = new SXSSFWorkbook(ROW_WINDOW);
+        wb.setCompressTempFiles(true);
+
+        var textFormat = wb.createDataFormat().getFormat("@");
+        var bold = wb.createFont();
+        bold.setBold(true);
+        headerStyle = wb.createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        headerStyle.setFont(bold);
+        keyStyle = wb.createCellStyle();
+        keyStyle.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
+        keyStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        keyStyle.setDataFormat(textFormat);
+        textStyle = wb.createCellStyle();
+        textStyle.setDataFormat(textFormat);
+    }
+
+    /**
+     * 写出一个工作表：表头 + 每个 key 一行
+     * @param ordinals 该工作表中 key 的序号（按行顺序）
+     */
+    public void writeSheet(String name, MultilingualCatalog catalog, List<Integer> ordinals, MultilingualMetrics metrics) {
+        SXSSFSheet sheet = wb.createSheet(name);
+        int hashCol = languages.size() + 1;
+        int[] widths = new int[hashCol];
+        // 必须在创建数据行之前设置：超出窗口的行立即写入临时文件，之后设置的列样式不会作用于已写出的单元格
+        sheet.setDefaultColumnStyle(0, keyStyle);
+        for (int col = 1; col < hashCol; col++) sheet.setDefaultColumnStyle(col, textStyle);
+
+        var header = sheet.createRow(0);
+        header.createCell(0).setCellValue("Key");
+        widths[0] = displayWidth("Key");
+        for (int i = 0; i < languages.size(); i++) {
+            header.createCell(i + 1).setCellValue(languages.get(i));
+            widths[i + 1] = displayWidth(languages.get(i));
+        }
+        header.createCell(hashCol).setCellValue(hashHeader);
+        for (int i = 0; i <= hashCol; i++) header.getCell(i).setCellStyle(headerStyle);
+
+        int r = 1;
+        for (int k : ordinals) {
+            var row = sheet.createRow(r++);
+            String key = catalog.keyAt(k);
+            row.createCell(0).setCellValue(key);
+            widths[0] = Math.max(widths[0], displayWidth(key));
+            for (int i = 0; i < languages.size(); i++) {
+                String text = catalog.get(languages.get(i), k);
+                row.createCell(i + 1).setCellValue(text == null ? "" : text);
+                if (text != null && widths[i + 1] < MAX_COLUMN_CHARS) widths[i + 1] = Math.max(widths[i + 1], displayWidth(text));
+            }
+            row.createCell(hashCol).setCellValue(MultilingualRowIntegrity.rowHash(key, catalog.get(languages.get(0), k)));
+            metrics.increment(MultilingualMetrics.COUNTER_ROWS);
+            metrics.add(MultilingualMetrics.COUNTER_CELLS, languages.size() + 1);
+        }
+
+        for (int col = 0; col < hashCol; col++) {
+            int chars = Math.min(Math.max(widths[col], MIN_COLUMN_CHARS), MAX_COLUMN_CHARS);
+            sheet.setColumnWidth(col, (chars + 2) * 256);
+        }
+        sheet.setColumnHidden(hashCol, true);
+        sheet.createFreezePane(1, 1);
+        sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, hashCol - 1));
+        highlightEmptyTranslations(sheet, ordinals.size());
+    }
+
+    /**
+     * 将工作簿写入文件
+     */
+    public void write(File outFile) throws IOException {
+        try (OutputStream out = new FileOutputStream(outFile)) {
+            wb.write(out);
+        }
+    }
+
+    /**
+     * 删除 SXSSF 的临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        wb.dispose();
+        wb.close();
+    }
+
+    /**
+     * 翻译列（基准语言之后的列）中为空的单元格标色，整列一条规则
+     */
+    private void highlightEmptyTranslations(SXSSFSheet sheet, int rowCount) {
+        if (languages.size() < 2 || rowCount == 0) return;
+        SheetConditionalFormatting formatting = sheet.getSheetConditionalFormatting();
+        String firstCell = new CellReference(1, 2, false, false).formatAsString();
+        ConditionalFormattingRule rule = formatting.createConditionalFormattingRule("LEN(TRIM(" + firstCell + "))=0");
+        PatternFormatting fill = rule.createPatternFormatting();
+        fill.setFillBackgroundColor(IndexedColors.LEMON_CHIFFON.getIndex());
+        fill.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+        formatting.addConditionalFormatting(
+                new CellRangeAddress[]{new CellRangeAddress(1, rowCount, 2, languages.size())}, rule);
+    }
+
+    /**
+     * 估算文本的显示宽度（字符数），全角字符按两个字符计
+     */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length() && width < MAX_COLUMN_CHARS; i++) {
+            width += text.charAt(i) >= 0x2E80 ? 2 : 1;
+        }
+        return width;
+    }
+}
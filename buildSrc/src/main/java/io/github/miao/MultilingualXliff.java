@@ -0,0 +1,394 @@
+package io.github.miao;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * XLIFF 2.0 导入导出，基于 StAX 流式读写，不构建 DOM 或 POI 工作簿：
+ * - 每个目标语言一个 .xlf 文件（srcLang 为基准语言，trgLang 为目标语言），基准目录中的每个资源文件对应一个 &lt;file&gt;
+ * - strings.xml 中的 &lt;xliff:g&gt; 占位符导出为 &lt;ph id disp equiv/&gt;，导入时还原
+ * - &lt;string&gt; 前紧邻的注释导出为 &lt;note&gt;
+ * - Android 语言代码（zh-rCN、b+sr+Latn）与 BCP 47 标签（zh-CN、sr-Latn）互相转换
+ */
+public class MultilingualXliff {
+    public static final String XLIFF_NS = "urn:oasis:names:tc:xliff:document:2.0";
+    // Android 资源中占位符使用的 XLIFF 1.2 命名空间
+    public static final String ANDROID_XLIFF_NS = "urn:oasis:names:tc:xliff:document:1.2";
+
+    private MultilingualXliff() {
+    }
+
+    /**
+     * @return 文件是否为 .xlf / .xliff
+     */
+    public static boolean isXliff(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".xlf") || name.endsWith(".xliff");
+    }
+
+    /**
+     * Android 语言代码转 BCP 47：en-rUS -> en-US，b+sr+Latn -> sr-Latn
+     */
+    public static String toBcp47(String androidCode) {
+        if (androidCode.startsWith("b+")) return androidCode.substring(2).replace('+', '-');
+        return androidCode.replace("-r", "-");
+    }
+
+    /**
+     * BCP 47 转 Android 语言代码：en-US -> en-rUS，sr-Latn -> b+sr+Latn
+     */
+    public static String fromBcp47(String tag) {
+        String[] parts = tag.split("[-_]");
+        if (parts.length == 1) return parts[0];
+        if (parts.length == 2 && parts[1].length() == 2) return parts[0] + "-r" + parts[1].toUpperCase(Locale.ROOT);
+        return "b+" + String.join("+", parts);
+    }
+
+    /**
+     * 字符串内容片段：文本或占位符
+     */
+    public static final class Part {
+        // 文本内容；占位符时为占位符内的原文（如 %1$s）
+        public final String text;
+        // 占位符 id，文本片段时为 null
+        public final String placeholderId;
+        // 占位符示例（xliff:g 的 example 属性）
+        public final String example;
+
+        Part(String text, String placeholderId, String example) {
+            this.text = text;
+            this.placeholderId = placeholderId;
+            this.example = example;
+        }
+
+        boolean isPlaceholder() {
+            return placeholderId != null;
+        }
+    }
+
+    /**
+     * strings.xml 中的一个 string 条目
+     */
+    public static final class Entry {
+        public final String key;
+        public final List<Part> parts;
+        public final String note;
+
+        Entry(String key, List<Part> parts, String note) {
+            this.key = key;
+            this.parts = parts;
+            this.note = note;
+        }
+    }
+
+    /**
+     * XLIFF 导入结果
+     */
+    public static final class Document {
+        public final String sourceLanguage;
+        public final String targetLanguage;
+        // key -> 目标文本（strings.xml 中 string 元素的内容，占位符已还原为 xliff:g 标记）
+        public final Map<String, String> targets;
+
+        Document(String sourceLanguage, String targetLanguage, Map<String, String> targets) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.targets = targets;
+        }
+    }
+
+    /**
+     * 流式读取 strings.xml 中的 string 条目（保留 xliff:g 占位符与前置注释）
+     * @param into 结果；已存在的 key 不覆盖（与资源文件归属一致，先出现的优先）
+     */
+    public static void readStrings(File file, Map<String, Entry> into) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            XMLStreamReader r = inputFactory().createXMLStreamReader(in);
+            String pendingNote = null;
+            int depth = 0;
+            while (r.hasNext()) {
+                int event = r.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2 && "string".equals(r.getLocalName())) {
+                        String key = r.getAttributeValue(null, "name");
+                        List<Part> parts = readStringContent(r);
+                        depth--;
+                        if (key != null && !into.containsKey(key)) into.put(key, new Entry(key, parts, pendingNote));
+                    }
+                    pendingNote = null;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                } else if (event == XMLStreamConstants.COMMENT && depth == 1) {
+                    pendingNote = r.getText().trim();
+                }
+            }
+            r.close();
+        } catch (IOException | XMLStreamException e) {
+            throw new MultilingualException("Failed to parse " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Part> readStringContent(XMLStreamReader r) throws XMLStreamException {
+        List<Part> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        Set<String> ids = new HashSet<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("g".equals(r.getLocalName()) && ANDROID_XLIFF_NS.equals(r.getNamespaceURI())) {
+                    if (text.length() > 0) {
+                        parts.add(new Part(text.toString(), null, null));
+                        text.setLength(0);
+                    }
+                    String id = r.getAttributeValue(null, "id");
+                    String example = r.getAttributeValue(null, "example");
+                    parts.add(new Part(r.getElementText(), uniqueId(id, ids), example));
+                } else {
+                    // 其他内联标记（如 <b>）只保留文本
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                text.append(r.getText());
+            }
+        }
+        if (text.length() > 0) parts.add(new Part(text.toString(), null, null));
+        // 按片段位置解码 Android 转义（首尾空白只在整个字符串的开头和结尾裁剪）
+        for (int i = 0; i < parts.size(); i++) {
+            Part part = parts.get(i);
+            String decoded = MultilingualStringCodec.decode(part.text, i == 0, i == parts.size() - 1);
+            if (decoded != part.text) parts.set(i, new Part(decoded, part.placeholderId, part.example));
+        }
+        return parts;
+    }
+
+    private static String uniqueId(String id, Set<String> used) {
+        String base = id == null || id.isBlank() ? "ph" + (used.size() + 1) : id;
+        String candidate = base;
+        for (int i = 2; !used.add(candidate); i++) candidate = base + "_" + i;
+        return candidate;
+    }
+
+    /**
+     * 源文件分组：基准目录中的一个资源文件及其条目
+     */
+    public static final class FileGroup {
+        public final String original;
+        public final List<Entry> entries;
+
+        public FileGroup(String original, List<Entry> entries) {
+            this.original = original;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * 写出一个目标语言的 XLIFF 2.0 文件
+     * @param targetLanguage 目标语言代码（Android 格式），为 null 时只写源文本
+     * @param targets 目标语言条目，可为空
+     * @return 写出的 unit 数量
+     */
+    public static int write(File outFile, String sourceLanguage, String targetLanguage,
+                            List<FileGroup> groups, Map<String, Entry> targets) {
+        int units = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outFile.toPath()))) {
+            XMLStreamWriter w = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            w.writeStartDocument("UTF-8", "1.0");
+            w.writeCharacters("\n");
+            w.setDefaultNamespace(XLIFF_NS);
+            w.writeStartElement(XLIFF_NS, "xliff");
+            w.writeDefaultNamespace(XLIFF_NS);
+            w.writeAttribute("version", "2.0");
+            w.writeAttribute("srcLang", toBcp47(sourceLanguage));
+            if (targetLanguage != null) w.writeAttribute("trgLang", toBcp47(targetLanguage));
+            Set<String> fileIds = new HashSet<>();
+            for (FileGroup group : groups) {
+                if (group.entries.isEmpty()) continue;
+                String fileName = new File(group.original).getName();
+                String fileId = uniqueId(fileName.endsWith(".xml") ? fileName.substring(0, fileName.length() - 4) : fileName, fileIds);
+                indent(w, 1);
+                w.writeStartElement(XLIFF_NS, "file");
+                w.writeAttribute("id", fileId);
+                w.writeAttribute("original", group.original);
+                for (Entry entry : group.entries) {
+                    indent(w, 2);
+                    w.writeStartElement(XLIFF_NS, "unit");
+                    w.writeAttribute("id", entry.key);
+                    if (entry.note != null && !entry.note.isEmpty()) {
+                        indent(w, 3);
+                        w.writeStartElement(XLIFF_NS, "notes");
+                        indent(w, 4);
+                        w.writeStartElement(XLIFF_NS, "note");
+                        w.writeCharacters(entry.note);
+                        w.writeEndElement();
+                        indent(w, 3);
+                        w.writeEndElement();
+                    }
+                    Entry target = targets == null ? null : targets.get(entry.key);
+                    indent(w, 3);
+                    w.writeStartElement(XLIFF_NS, "segment");
+                    w.writeAttribute("state", target != null ? "translated" : "initial");
+                    indent(w, 4);
+                    w.writeStartElement(XLIFF_NS, "source");
+                    writeParts(w, entry.parts);
+                    w.writeEndElement();
+                    if (target != null) {
+                        indent(w, 4);
+                        w.writeStartElement(XLIFF_NS, "target");
+                        writeParts(w, target.parts);
+                        w.writeEndElement();
+                    }
+                    indent(w, 3);
+                    w.writeEndElement();
+                    indent(w, 2);
+                    w.writeEndElement();
+                    units++;
+                }
+                indent(w, 1);
+                w.writeEndElement();
+            }
+            w.writeCharacters("\n");
+            w.writeEndElement();
+            w.writeCharacters("\n");
+            w.writeEndDocument();
+            w.close();
+        } catch (IOException | XMLStreamException e) {
+            throw new MultilingualException("Failed to write XLIFF file " + outFile.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return units;
+    }
+
+    private static void writeParts(XMLStreamWriter w, List<Part> parts) throws XMLStreamException {
+        for (Part part : parts) {
+            if (part.isPlaceholder()) {
+                w.writeEmptyElement(XLIFF_NS, "ph");
+                w.writeAttribute("id", part.placeholderId);
+                if (part.example != null) w.writeAttribute("disp", part.example);
+                w.writeAttribute("equiv", part.text);
+            } else {
+                w.writeCharacters(part.text);
+            }
+        }
+    }
+
+    private static void indent(XMLStreamWriter w, int level) throws XMLStreamException {
+        w.writeCharacters("\n" + "  ".repeat(level));
+    }
+
+    /**
+     * 流式读取 XLIFF 2.0 文件中各 unit 的目标文本；没有 target 的 unit 会被忽略
+     */
+    public static Document read(File file) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            XMLStreamReader r = inputFactory().createXMLStreamReader(in);
+            String sourceLanguage = null;
+            String targetLanguage = null;
+            Map<String, String> targets = new LinkedHashMap<>();
+            String unitId = null;
+            StringBuilder unitTarget = null;
+            while (r.hasNext()) {
+                int event = r.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = r.getLocalName();
+                    if ("xliff".equals(name)) {
+                        String version = r.getAttributeValue(null, "version");
+                        if (version == null || !version.startsWith("2.")) {
+                            throw new MultilingualException("Unsupported XLIFF version: " + version + " (expected 2.x)");
+                        }
+                        sourceLanguage = r.getAttributeValue(null, "srcLang");
+                        targetLanguage = r.getAttributeValue(null, "trgLang");
+                    } else if ("unit".equals(name)) {
+                        unitId = r.getAttributeValue(null, "id");
+                        unitTarget = null;
+                    } else if ("target".equals(name) && unitId != null) {
+                        // 多个 segment 的 target 依次拼接
+                        if (unitTarget == null) unitTarget = new StringBuilder();
+                        readTargetContent(r, unitTarget);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "unit".equals(r.getLocalName())) {
+                    if (unitId != null && unitTarget != null) targets.put(unitId, unitTarget.toString());
+                    unitId = null;
+                    unitTarget = null;
+                }
+            }
+            r.close();
+            return new Document(sourceLanguage, targetLanguage, targets);
+        } catch (IOException | XMLStreamException e) {
+            throw new MultilingualException("Failed to read XLIFF file " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取 target 内容并转换为 strings.xml 标记：文本转义，&lt;ph&gt; 还原为 &lt;xliff:g&gt;，其他内联元素只保留文本
+     */
+    private static void readTargetContent(XMLStreamReader r, StringBuilder out) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("ph".equals(r.getLocalName())) {
+                    String id = r.getAttributeValue(null, "id");
+                    String disp = r.getAttributeValue(null, "disp");
+                    String equiv = r.getAttributeValue(null, "equiv");
+                    out.append("<xliff:g");
+                    if (id != null && !id.matches("ph\\d+")) out.append(" id=\"").append(escapeAttribute(id)).append('"');
+                    if (disp != null) out.append(" example=\"").append(escapeAttribute(disp)).append('"');
+                    out.append('>').append(escapeText(equiv == null ? "" : equiv)).append("</xliff:g>");
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                out.append(escapeText(r.getText()));
+            }
+        }
+    }
+
+    private static String escapeText(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '&') sb.append("&amp;");
+            else if (c == '<') sb.append("&lt;");
+            else if (c == '>') sb.append("&gt;");
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String escapeAttribute(String text) {
+        return escapeText(text).replace("\"", "&quot;");
+    }
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
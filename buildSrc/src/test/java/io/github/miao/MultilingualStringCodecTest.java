@@ -0,0 +1,81 @@
+package io.github.miao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link MultilingualStringCodec} 往返测试：对任意文本 decode(encode(s)) == s
+ */
+class MultilingualStringCodecTest {
+    // 与转义相关的字符（含空白、引号、反斜杠、资源引用前缀、\\u 转义中的字符），以及普通字符与 XML 字符
+    private static final char[] ALPHABET = {
+            ' ', '\n', '\t', '\r', '\\', '\'', '"', '@', '?', 'u', '0', 'D', '/', ':',
+            'a', 'b', '中', '文', '<', '&', '%', '$', '1', '_', '.'
+    };
+    private static final String[] FRAGMENTS = {
+            "", "a", "ab", "  ", "@string/app_name", "?attr/colorPrimary", "\\u0020", "\\n", "%1$s", "中文"
+    };
+    private static final boolean[] BOOLEANS = {true, false};
+
+    @Test
+    void escapeCharactersRoundTripAtEveryPosition() {
+        for (char c : ALPHABET) {
+            for (String before : FRAGMENTS) {
+                for (String after : FRAGMENTS) {
+                    assertRoundTrip(before + c + after);
+                    assertRoundTrip(before + c + c + after);
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomStringsRoundTrip() {
+        Random random = new Random(20251019L);
+        for (int i = 0; i < 200_000; i++) {
+            int length = random.nextInt(12);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            assertRoundTrip(sb.toString());
+        }
+    }
+
+    @Test
+    void resourceReferencesAreNotEscaped() {
+        assertEquals("@string/app_name", MultilingualStringCodec.encode("@string/app_name"));
+        assertEquals("?attr/colorPrimary", MultilingualStringCodec.encode("?attr/colorPrimary"));
+        assertEquals("\\@ home", MultilingualStringCodec.encode("@ home"));
+    }
+
+    @Test
+    void plainTextIsReturnedWithoutCopy() {
+        String text = "Hello, world";
+        assertSame(text, MultilingualStringCodec.encode(text));
+        assertSame(text, MultilingualStringCodec.decode(text));
+    }
+
+    private static void assertRoundTrip(String text) {
+        assertEquals(text, MultilingualStringCodec.decode(MultilingualStringCodec.encode(text)), () -> describe(text));
+        // 内联元素之间的片段：开头 / 结尾是否位于整个字符串的两端
+        for (boolean atStart : BOOLEANS) {
+            for (boolean atEnd : BOOLEANS) {
+                String encoded = MultilingualStringCodec.encode(text, atStart, atEnd);
+                assertEquals(text, MultilingualStringCodec.decode(encoded, atStart, atEnd),
+                        () -> describe(text) + " atStart=" + atStart + " atEnd=" + atEnd);
+            }
+        }
+    }
+
+    private static String describe(String text) {
+        StringBuilder sb = new StringBuilder("round trip failed for \"");
+        for (char c : text.toCharArray()) {
+            if (c < 0x20) sb.append(String.format("\\u%04X", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -9,7 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * GenerateExcelAction executes the :app:generateExcel Gradle task.
+ * GenerateExcelAction executes the generateExcel Gradle task of the selected modules (default :app).
  * This task exports multi-language string resources to an Excel file.
  */
 public class GenerateExcelAction extends GradleTaskAction {
@@ -17,7 +17,7 @@ public class GenerateExcelAction extends GradleTaskAction {
     public GenerateExcelAction() {
         super(":app:generateExcel");
         getTemplatePresentation().setText("导出到Excel");
-        getTemplatePresentation().setDescription("Run :app:generateExcel to export translations to Excel");
+        getTemplatePresentation().setDescription("Run generateExcel of the selected modules to export translations to Excel");
     }
 
     @Override
@@ -40,6 +40,14 @@ public class GenerateExcelAction extends GradleTaskAction {
             String filePattern = dialog.getFilePattern();
             String include = dialog.getIncludeLanguages();
             String outputResDir = dialog.getOutputResDir();
+            List<String> modules = dialog.getSelectedModules();
+            if (modules.size() > 1) {
+                // 多个模块导出到同一目录：文件名需要区分模块，res 目录由各模块自动查找
+                if (!filePattern.contains("{module}")) {
+                    filePattern = "{module}-" + filePattern;
+                }
+                outputResDir = null;
+            }
 
             List<String> args = new ArrayList<>();
             args.add("-PexportDir=" + exportDir);
@@ -63,7 +71,11 @@ public class GenerateExcelAction extends GradleTaskAction {
                 }
             }
 
-            runGradle(project, ":app:generateExcel", args);
+            List<String> tasks = new ArrayList<>();
+            for (String module : modules) {
+                tasks.add(module + ":generateExcel");
+            }
+            runTasks(project, tasks, args);
         }
     }
 }
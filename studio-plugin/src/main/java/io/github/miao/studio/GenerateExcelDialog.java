@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
+import java.util.List;
 
 /**
  * 对话框用于收集 Generate Excel 任务的参数
@@ -18,11 +19,13 @@ public class GenerateExcelDialog extends DialogWrapper {
     private JTextField filePatternField;
     private JTextField includeLanguagesField;
     private TextFieldWithBrowseButton outputResDirField;
+    private ModuleSelectionPanel moduleSelectionPanel;
     private Project project;
     
     public GenerateExcelDialog(@Nullable Project project) {
         super(project);
         this.project = project;
+        this.moduleSelectionPanel = ModuleSelectionPanel.create(project);
         setTitle("生成 Excel 配置");
         init();
     }
@@ -135,7 +138,7 @@ public class GenerateExcelDialog extends DialogWrapper {
         gbc.weightx = 1.0;
         gbc.weighty = 0;
         JLabel filePatternHint = new JLabel("<html><small>使用 DateTimeFormatter 模式，例如: language-yyyyMMdd-HHmm.xlsx<br>" +
-                "支持: yyyy(年), MM(月), dd(日), HH(时), mm(分)</small></html>");
+                "支持: yyyy(年), MM(月), dd(日), HH(时), mm(分), {module}(模块名，多模块导出时未包含则自动加在文件名前)</small></html>");
         filePatternHint.setForeground(Color.GRAY);
         panel.add(filePatternHint, gbc);
         
@@ -210,7 +213,7 @@ public class GenerateExcelDialog extends DialogWrapper {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.weightx = 1.0;
         gbc.weighty = 0;
-        JLabel outputResDirHint = new JLabel("<html><small>可手动指定项目 res 目录，留空则自动查找。此目录决定从哪个模块的 res 目录读取 strings.xml 文件。</small></html>");
+        JLabel outputResDirHint = new JLabel("<html><small>可手动指定项目 res 目录，留空则自动查找。此目录决定从哪个模块的 res 目录读取 strings.xml 文件。选择多个模块时忽略此项。</small></html>");
         outputResDirHint.setForeground(Color.GRAY);
         panel.add(outputResDirHint, gbc);
         
@@ -218,7 +221,18 @@ public class GenerateExcelDialog extends DialogWrapper {
         panel.setPreferredSize(new Dimension(700, 380));
         panel.setMinimumSize(new Dimension(650, 380));
         
-        return panel;
+        // 模块选择放在参数上方
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(moduleSelectionPanel, BorderLayout.NORTH);
+        wrapper.add(panel, BorderLayout.CENTER);
+        return wrapper;
+    }
+    
+    /**
+     * @return 选中模块的 Gradle 路径（如 :app、:library）
+     */
+    public List<String> getSelectedModules() {
+        return moduleSelectionPanel.getSelectedModules();
     }
     
     public String getExportDir() {
@@ -281,6 +295,10 @@ public class GenerateExcelDialog extends DialogWrapper {
     @Override
     protected void doOKAction() {
         // 验证必填字段
+        if (getSelectedModules().isEmpty()) {
+            JOptionPane.showMessageDialog(getContentPanel(), "请至少选择一个模块", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         if (getExportDir().isEmpty()) {
             JOptionPane.showMessageDialog(getContentPanel(), "导出目录不能为空", "输入错误", JOptionPane.ERROR_MESSAGE);
             return;
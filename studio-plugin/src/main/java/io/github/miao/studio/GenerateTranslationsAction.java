@@ -9,7 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * GenerateTranslationsAction executes the :app:generateTranslations Gradle task.
+ * GenerateTranslationsAction executes the generateTranslations Gradle task of the selected modules (default :app).
  * This task generates multi-language strings.xml files from an Excel translation file.
  */
 public class GenerateTranslationsAction extends GradleTaskAction {
@@ -18,7 +18,7 @@ public class GenerateTranslationsAction extends GradleTaskAction {
         super(":app:generateTranslations");
         // Set action text and description
         getTemplatePresentation().setText("生成xml文件");
-        getTemplatePresentation().setDescription("Run :app:generateTranslations to generate strings.xml from Excel");
+        getTemplatePresentation().setDescription("Run generateTranslations of the selected modules to generate strings.xml from Excel");
     }
     
     @Override
@@ -45,6 +45,11 @@ public class GenerateTranslationsAction extends GradleTaskAction {
             String importMode = dialog.getImportMode();
             String comparisonBaseDir = dialog.getComparisonBaseDir();
             String insertionMode = dialog.getInsertionMode();
+            List<String> modules = dialog.getSelectedModules();
+            if (modules.size() > 1) {
+                // 多个模块共用同一个 Excel 文件，res 目录由各模块自动查找
+                outputResDir = null;
+            }
 
             // 处理 Excel 文件路径：如果是相对路径，转换为绝对路径
             String basePath = project.getBasePath();
@@ -77,7 +82,11 @@ public class GenerateTranslationsAction extends GradleTaskAction {
                 args.add("-PoutputResDir=" + outputResDirFile.getAbsolutePath());
             }
 
-            runGradle(project, ":app:generateTranslations", args);
+            List<String> tasks = new ArrayList<>();
+            for (String module : modules) {
+                tasks.add(module + ":generateTranslations");
+            }
+            runTasks(project, tasks, args);
         }
     }
 }
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
+import java.util.List;
 
 /**
  * 对话框用于收集 Generate Translations 任务的参数
@@ -32,11 +33,13 @@ public class GenerateTranslationsDialog extends DialogWrapper {
     private JRadioButton skipNewKeyButton;
     private JRadioButton updateAndAddNewKeyButton;
     private JLabel insertionModeHint;
+    private ModuleSelectionPanel moduleSelectionPanel;
     private Project project;
     
     public GenerateTranslationsDialog(@Nullable Project project) {
         super(project);
         this.project = project;
+        this.moduleSelectionPanel = ModuleSelectionPanel.create(project);
         setTitle("生成翻译文件配置");
         init();
     }
@@ -312,7 +315,7 @@ public class GenerateTranslationsDialog extends DialogWrapper {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.weightx = 1.0;
         gbc.weighty = 0;
-        JLabel outputResDirHint = new JLabel("<html><small>可手动指定项目 res 目录，留空则自动查找。此目录既决定输出位置，也决定对比的 values 目录。<br>" +
+        JLabel outputResDirHint = new JLabel("<html><small>可手动指定项目 res 目录，留空则自动查找。此目录既决定输出位置，也决定对比的 values 目录，选择多个模块时忽略此项。<br>" +
                 "生成的 strings.xml 将保存在 values-{langCode}/ 子目录中</small></html>");
         outputResDirHint.setForeground(Color.GRAY);
         panel.add(outputResDirHint, gbc);
@@ -324,7 +327,18 @@ public class GenerateTranslationsDialog extends DialogWrapper {
         // 初始化时，默认显示compare模式的字段（compare模式）
         updateFieldsVisibility(true);
         
-        return panel;
+        // 模块选择放在参数上方
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(moduleSelectionPanel, BorderLayout.NORTH);
+        wrapper.add(panel, BorderLayout.CENTER);
+        return wrapper;
+    }
+    
+    /**
+     * @return 选中模块的 Gradle 路径（如 :app、:library）
+     */
+    public List<String> getSelectedModules() {
+        return moduleSelectionPanel.getSelectedModules();
     }
     
     public String getExcelFilePath() {
@@ -438,6 +452,10 @@ public class GenerateTranslationsDialog extends DialogWrapper {
     @Override
     protected void doOKAction() {
         // 验证必填字段
+        if (getSelectedModules().isEmpty()) {
+            JOptionPane.showMessageDialog(getContentPanel(), "请至少选择一个模块", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         if (getExcelFilePath().isEmpty()) {
             JOptionPane.showMessageDialog(getContentPanel(), "Excel 文件路径不能为空", "输入错误", JOptionPane.ERROR_MESSAGE);
             return;
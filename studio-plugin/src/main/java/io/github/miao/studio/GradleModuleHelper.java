@@ -0,0 +1,104 @@
+package io.github.miao.studio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GradleModuleHelper 帮助类，按 settings.gradle 与各模块构建脚本查找可执行多语言任务的 Android 模块
+ */
+public class GradleModuleHelper {
+    // include ':app', ':library' / include(":app", ":feature:home") 等语句
+    private static final Pattern INCLUDE = Pattern.compile("(?m)^\\s*include\\b\\s*\\(?([^\\n]*)");
+    private static final Pattern QUOTED = Pattern.compile("['\"]([^'\"]+)['\"]");
+    private static final String PLUGIN_ID = "io.github.miao.multilingual";
+
+    /**
+     * 查找应用了多语言插件的 Android 模块：
+     * - 根构建脚本应用插件时，所有 Android 模块（application / library）都会自动注册任务
+     * - 否则只返回构建脚本中直接应用了插件的 Android 模块
+     * 未找到时返回 :app（插件尚未应用时由自动配置流程处理）
+     *
+     * @param projectDir 项目根目录
+     * @return 模块的 Gradle 路径（如 :app、:library），按 settings.gradle 中的顺序
+     */
+    public static List<String> findMultilingualModules(File projectDir) {
+        boolean appliedAtRoot = contains(new File(projectDir, "build.gradle"), PLUGIN_ID)
+                || contains(new File(projectDir, "build.gradle.kts"), PLUGIN_ID);
+        List<String> modules = new ArrayList<>();
+        for (String path : readIncludedProjects(projectDir)) {
+            File moduleDir = moduleDir(projectDir, path);
+            String script = readBuildScript(moduleDir);
+            if (script == null || !isAndroidModule(script)) continue;
+            if (appliedAtRoot || script.contains(PLUGIN_ID)) {
+                modules.add(path);
+            }
+        }
+        if (modules.isEmpty()) {
+            modules.add(":app");
+        }
+        return modules;
+    }
+
+    /**
+     * 按 Gradle 默认布局将项目路径转换为模块目录（如 :feature:home -> feature/home）
+     */
+    public static File moduleDir(File projectDir, String path) {
+        String relative = path.startsWith(":") ? path.substring(1) : path;
+        return relative.isEmpty() ? projectDir : new File(projectDir, relative.replace(':', File.separatorChar));
+    }
+
+    /**
+     * 读取 settings.gradle(.kts) 中 include 的项目路径，统一为以 ':' 开头的形式
+     */
+    private static List<String> readIncludedProjects(File projectDir) {
+        List<String> result = new ArrayList<>();
+        for (File settings : new File[] {new File(projectDir, "settings.gradle"), new File(projectDir, "settings.gradle.kts")}) {
+            String content = read(settings);
+            if (content == null) continue;
+            Matcher include = INCLUDE.matcher(content);
+            while (include.find()) {
+                Matcher quoted = QUOTED.matcher(include.group(1));
+                while (quoted.find()) {
+                    String path = quoted.group(1).trim();
+                    if (!path.startsWith(":")) path = ":" + path;
+                    if (!result.contains(path)) result.add(path);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String readBuildScript(File moduleDir) {
+        String content = read(new File(moduleDir, "build.gradle"));
+        return content != null ? content : read(new File(moduleDir, "build.gradle.kts"));
+    }
+
+    /**
+     * 判断构建脚本是否应用了 Android application / library 插件（包括版本目录别名写法）
+     */
+    private static boolean isAndroidModule(String script) {
+        return script.contains("com.android.application") || script.contains("com.android.library")
+                || script.contains("android.application") || script.contains("android.library")
+                || script.contains("androidApplication") || script.contains("androidLibrary");
+    }
+
+    private static boolean contains(File file, String text) {
+        String content = read(file);
+        return content != null && content.contains(text);
+    }
+
+    private static String read(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
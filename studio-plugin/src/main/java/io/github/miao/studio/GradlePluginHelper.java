@@ -4,13 +4,39 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * GradlePluginHelper 帮助类，用于检测和自动应用 Gradle 插件到用户项目
  */
 public class GradlePluginHelper {
+    // 插件代码模板在 JAR 中的位置与模板清单（由 studio-plugin 构建任务 generateBuildSrcTemplates 生成）
+    private static final String TEMPLATE_ROOT = "/buildSrc-templates/";
+    private static final String TEMPLATE_MANIFEST = "manifest.properties";
+    private static final String MANIFEST_VERSION = "version";
+    // 部署到插件目录中的模板清单副本
+    private static final String DEPLOYED_MANIFEST = ".multilingual-templates.properties";
+    // 预编译插件的本地文件 Maven 仓库（由 studio-plugin 构建任务 generateGradlePluginRepo 生成）
+    private static final String PLUGIN_REPO_ROOT = "/multilingual-repo/";
+    private static final String PLUGIN_REPO_DIR = "gradle/multilingual-repo";
+    private static final String PLUGIN_ID = "io.github.miao.multilingual";
+    // plugins { } 中带版本号的插件声明（Groovy 与 Kotlin DSL），第 2 组为版本号
+    private static final Pattern PLUGIN_DECLARATION = Pattern.compile(
+            "(id\\s*\\(?\\s*['\"]io\\.github\\.miao\\.multilingual['\"]\\s*\\)?\\s*version\\s*\\(?\\s*['\"])([^'\"]*)(['\"])");
     
     /**
      * 检查用户项目是否已应用了多语言 Gradle 插件
@@ -23,6 +49,14 @@ public class GradlePluginHelper {
             return false;
         }
         
+        // 预编译插件：仓库已部署且根构建脚本中声明了插件
+        if (new File(projectDir, PLUGIN_REPO_DIR + "/" + DEPLOYED_MANIFEST).isFile()) {
+            File rootBuildGradle = new File(projectDir, "build.gradle");
+            File rootBuildGradleKts = new File(projectDir, "build.gradle.kts");
+            return (rootBuildGradle.exists() && containsPlugin(rootBuildGradle, PLUGIN_ID))
+                    || (rootBuildGradleKts.exists() && containsPlugin(rootBuildGradleKts, PLUGIN_ID));
+        }
+        
         // 检查插件目录是否存在（优先使用 gradle/plugins/multilingual-plugin）
         File pluginDir = getPluginDirectory(projectDir);
         if (isBuildSrcComplete(pluginDir)) {
@@ -99,8 +133,13 @@ public class GradlePluginHelper {
             logBuilder.append("项目目录: ").append(projectDir.getAbsolutePath()).append("\n");
         }
         
-        // 首先确保插件目录存在并包含插件代码（优先使用隐藏目录）
+        // 插件内置预编译插件，且项目中没有以源码方式部署的插件时，使用预编译插件
         File pluginDir = getPluginDirectory(projectDir);
+        if (!isBuildSrcComplete(pluginDir) && hasPrebuiltPlugin()) {
+            return applyPrebuiltPlugin(projectDir, logBuilder);
+        }
+        
+        // 首先确保插件目录存在并包含插件代码（优先使用隐藏目录）
         if (logBuilder != null) {
             logBuilder.append("插件目录: ").append(pluginDir.getAbsolutePath()).append("\n");
         }
@@ -241,6 +280,22 @@ public class GradlePluginHelper {
         }
     }
     
+    /**
+     * {@link #isPluginApplied} 读取的全部文件（相对项目根目录），这些文件变化时检测结果需要重新计算
+     */
+    static List<String> getDetectionPaths() {
+        List<String> paths = new ArrayList<>(List.of(
+                "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts",
+                "app/build.gradle", "app/build.gradle.kts"));
+        paths.add(PLUGIN_REPO_DIR + "/" + DEPLOYED_MANIFEST);
+        for (String pluginDir : List.of("buildSrc", "gradle/plugins/multilingual-plugin",
+                ".multilingual-plugin", ".gradle/multilingual-plugin")) {
+            paths.add(pluginDir + "/build.gradle");
+            paths.add(pluginDir + "/src/main/java/io/github/miao/MultilingualPlugin.java");
+        }
+        return paths;
+    }
+
     /**
      * 检查插件目录是否完整（包含插件代码）
      * 支持多种目录位置：gradle/plugins/multilingual-plugin、.multilingual-plugin、.gradle/multilingual-plugin、buildSrc
@@ -363,7 +418,7 @@ public class GradlePluginHelper {
     
     /**
      * 创建插件目录结构并复制插件代码
-     * 从插件 JAR 的资源文件中提取插件代码并复制到用户项目
+     * 从插件 JAR 的资源文件中提取插件代码并复制到用户项目（见 {@link #deployTemplates}）
      * @param projectDir 项目根目录
      * @param pluginDir 插件目录（可能是 buildSrc 或 .gradle/multilingual-plugin）
      * @param logBuilder 日志收集器（可选）
@@ -402,60 +457,6 @@ public class GradlePluginHelper {
                 }
             }
             
-            // 从资源文件复制 build.gradle（如果不存在或内容不完整则创建/覆盖）
-            File pluginBuildGradle = new File(pluginDir, "build.gradle");
-            boolean buildGradleExists = pluginBuildGradle.exists();
-            if (logBuilder != null) {
-                logBuilder.append("build.gradle ").append(buildGradleExists ? "已存在" : "不存在").append(": ").append(pluginBuildGradle.getAbsolutePath()).append("\n");
-            }
-            
-            if (!buildGradleExists || pluginBuildGradle.length() == 0) {
-                if (logBuilder != null) {
-                    logBuilder.append("创建/更新 build.gradle...\n");
-                }
-                InputStream buildGradleStream = GradlePluginHelper.class.getResourceAsStream(
-                        "/buildSrc-templates/build.gradle.template");
-                if (buildGradleStream != null) {
-                    Files.copy(buildGradleStream, pluginBuildGradle.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                    buildGradleStream.close();
-                    if (logBuilder != null) {
-                        logBuilder.append("✓ 从模板复制 build.gradle 成功\n");
-                    }
-                } else {
-                    // 如果资源文件不存在，使用默认内容
-                    if (logBuilder != null) {
-                        logBuilder.append("模板文件不存在，使用默认内容创建 build.gradle\n");
-                    }
-                    String buildSrcContent = "plugins {\n" +
-                            "    id 'java-gradle-plugin'\n" +
-                            "}\n" +
-                            "\n" +
-                            "gradlePlugin {\n" +
-                            "    plugins {\n" +
-                            "        register('multilingualPlugin') {\n" +
-                            "            id = 'io.github.miao.multilingual'\n" +
-                            "            implementationClass = 'io.github.miao.MultilingualPlugin'\n" +
-                            "        }\n" +
-                            "    }\n" +
-                            "}\n" +
-                            "\n" +
-                            "repositories {\n" +
-                            "    mavenCentral()\n" +
-                            "}\n" +
-                            "\n" +
-                            "dependencies {\n" +
-                            "    implementation gradleApi()\n" +
-                            "    implementation localGroovy()\n" +
-                            "    implementation 'org.apache.poi:poi:5.2.3'\n" +
-                            "    implementation 'org.apache.poi:poi-ooxml:5.2.3'\n" +
-                            "}\n";
-                    Files.write(pluginBuildGradle.toPath(), buildSrcContent.getBytes());
-                    if (logBuilder != null) {
-                        logBuilder.append("✓ 默认 build.gradle 创建成功\n");
-                    }
-                }
-            }
-            
             // 创建插件项目的 settings.gradle（用于独立构建）
             // 注意：只有在非 buildSrc 目录时才需要创建 settings.gradle
             // buildSrc 是 Gradle 的特殊约定目录，不需要 settings.gradle
@@ -471,78 +472,19 @@ public class GradlePluginHelper {
                 }
             }
             
-            // 创建目录结构
-            File srcMainJava = new File(pluginDir, "src/main/java/io/github/miao");
-            boolean dirsCreated = srcMainJava.mkdirs();
-            if (logBuilder != null) {
-                logBuilder.append("Java 源码目录 ").append(dirsCreated ? "创建" : "已存在").append(": ").append(srcMainJava.getAbsolutePath()).append("\n");
-            }
-            
-            // 从资源文件复制所有 Java 源文件
-            String[] javaFiles = {
-                    "MultilingualPlugin.java",
-                    "MultilingualExtension.java",
-                    "MultilingualTask.java",
-                    "MultilingualExcelTask.java"
-            };
-            
-            int copiedCount = 0;
-            int skippedCount = 0;
+            // 按模板清单部署 build.gradle 与插件源码，只重写内容不同的文件
             int errorCount = 0;
-            
-            for (String javaFile : javaFiles) {
-                File targetFile = new File(srcMainJava, javaFile);
-                String resourcePath = "/buildSrc-templates/src/main/java/io/github/miao/" + javaFile;
-                
-                if (!targetFile.exists() || targetFile.length() == 0) {
-                    if (logBuilder != null) {
-                        logBuilder.append("复制文件: ").append(javaFile).append(" (资源路径: ").append(resourcePath).append(")\n");
-                    }
-                    InputStream javaStream = GradlePluginHelper.class.getResourceAsStream(resourcePath);
-                    if (javaStream != null) {
-                        try {
-                            Files.copy(javaStream, targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                            copiedCount++;
-                            if (logBuilder != null) {
-                                logBuilder.append("  ✓ 已复制文件: ").append(javaFile).append(" (").append(targetFile.length()).append(" bytes)\n");
-                            }
-                        } catch (IOException e) {
-                            errorCount++;
-                            if (logBuilder != null) {
-                                logBuilder.append("  ✗ 复制文件失败: ").append(javaFile).append(" - ").append(e.getMessage()).append("\n");
-                            }
-                        } finally {
-                            try {
-                                javaStream.close();
-                            } catch (IOException e) {
-                                // 忽略关闭错误
-                            }
-                        }
-                    } else {
-                        errorCount++;
-                        if (logBuilder != null) {
-                            logBuilder.append("  ✗ 错误: 资源文件不存在: ").append(resourcePath).append("\n");
-                            logBuilder.append("    请确保插件 JAR 中包含资源文件: ").append(resourcePath).append("\n");
-                        }
-                    }
-                } else {
-                    skippedCount++;
-                    if (logBuilder != null) {
-                        logBuilder.append("  - 文件已存在，跳过: ").append(javaFile).append(" (").append(targetFile.length()).append(" bytes)\n");
-                    }
+            try {
+                deployTemplates(TEMPLATE_ROOT, pluginDir, logBuilder);
+            } catch (IOException e) {
+                errorCount++;
+                if (logBuilder != null) {
+                    logBuilder.append("✗ 部署插件代码失败: ").append(e.getMessage()).append("\n");
                 }
             }
             
-            if (logBuilder != null) {
-                logBuilder.append("========================================\n");
-                logBuilder.append("插件结构创建完成:\n");
-                logBuilder.append("  复制: ").append(copiedCount).append(" 个文件\n");
-                logBuilder.append("  跳过: ").append(skippedCount).append(" 个文件\n");
-                logBuilder.append("  错误: ").append(errorCount).append(" 个文件\n");
-            }
-            
             // 验证关键文件是否存在
-            File pluginJavaFile = new File(srcMainJava, "MultilingualPlugin.java");
+            File pluginJavaFile = new File(pluginDir, "src/main/java/io/github/miao/MultilingualPlugin.java");
             if (!pluginJavaFile.exists() || pluginJavaFile.length() == 0) {
                 if (logBuilder != null) {
                     logBuilder.append("✗ 错误: 关键文件 MultilingualPlugin.java 不存在或为空\n");
@@ -550,12 +492,6 @@ public class GradlePluginHelper {
                 return false;
             }
             
-            if (errorCount > 0) {
-                if (logBuilder != null) {
-                    logBuilder.append("⚠ 警告: 有 ").append(errorCount).append(" 个文件复制失败，插件可能无法正常工作\n");
-                }
-            }
-            
             if (logBuilder != null) {
                 logBuilder.append("========================================\n");
             }
@@ -568,6 +504,295 @@ public class GradlePluginHelper {
         }
     }
     
+    /**
+     * @return 插件代码所在目录：预编译插件仓库（已部署时）或插件源码目录
+     */
+    public static File getInstallationDirectory(File projectDir) {
+        File repoDir = new File(projectDir, PLUGIN_REPO_DIR);
+        return new File(repoDir, DEPLOYED_MANIFEST).isFile() ? repoDir : getPluginDirectory(projectDir);
+    }
+
+    private static boolean hasPrebuiltPlugin() {
+        return GradlePluginHelper.class.getResource(PLUGIN_REPO_ROOT + TEMPLATE_MANIFEST) != null;
+    }
+
+    /**
+     * 以预编译插件的方式应用：
+     * 1. 将插件 jar 部署到项目的本地文件 Maven 仓库 gradle/multilingual-repo
+     * 2. 在 settings 的 pluginManagement 中添加该仓库
+     * 3. 在根构建脚本的 plugins { } 中按 id 和版本声明插件（根项目应用后会自动为 Android 模块注册任务）
+     */
+    private static boolean applyPrebuiltPlugin(File projectDir, StringBuilder logBuilder) {
+        try {
+            if (logBuilder != null) {
+                logBuilder.append("使用预编译插件，仓库目录: ").append(new File(projectDir, PLUGIN_REPO_DIR).getAbsolutePath()).append("\n");
+            }
+            deployTemplates(PLUGIN_REPO_ROOT, new File(projectDir, PLUGIN_REPO_DIR), logBuilder);
+            declarePluginRepository(projectDir, logBuilder);
+            declarePluginVersion(projectDir, logBuilder);
+            return true;
+        } catch (IOException e) {
+            if (logBuilder != null) {
+                logBuilder.append("✗ 应用预编译插件失败: ").append(e.getMessage()).append("\n");
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 在 settings 的 pluginManagement { repositories { } } 中添加本地插件仓库；
+     * 新建 repositories 时同时保留 gradlePluginPortal()（默认插件仓库）与 mavenCentral()
+     */
+    private static void declarePluginRepository(File projectDir, StringBuilder logBuilder) throws IOException {
+        File settingsKtsFile = new File(projectDir, "settings.gradle.kts");
+        File settingsFile = settingsKtsFile.exists() ? settingsKtsFile : new File(projectDir, "settings.gradle");
+        boolean kts = settingsFile == settingsKtsFile;
+        String content = settingsFile.exists() ? Files.readString(settingsFile.toPath(), StandardCharsets.UTF_8) : "";
+        if (content.contains(PLUGIN_REPO_DIR)) {
+            if (logBuilder != null) {
+                logBuilder.append("✓ ").append(settingsFile.getName()).append(" 中已存在本地插件仓库\n");
+            }
+            return;
+        }
+        String repository = kts
+                ? "maven { url = File(settingsDir, \"" + PLUGIN_REPO_DIR + "\").toURI() }"
+                : "maven { url = new File(settingsDir, '" + PLUGIN_REPO_DIR + "').toURI() }";
+        String newContent;
+        Matcher pluginManagement = Pattern.compile("pluginManagement\\s*\\{").matcher(content);
+        if (pluginManagement.find()) {
+            int end = findBlockEnd(content, pluginManagement.end() - 1);
+            Matcher repositories = Pattern.compile("repositories\\s*\\{").matcher(content);
+            repositories.region(pluginManagement.end(), end);
+            if (repositories.find()) {
+                newContent = content.substring(0, repositories.end()) + "\n        " + repository + content.substring(repositories.end());
+            } else {
+                newContent = content.substring(0, pluginManagement.end()) + "\n    repositories {\n        " + repository
+                        + "\n        gradlePluginPortal()\n        mavenCentral()\n    }" + content.substring(pluginManagement.end());
+            }
+        } else {
+            // pluginManagement 必须是 settings 中的第一个语句
+            newContent = "pluginManagement {\n    repositories {\n        " + repository
+                    + "\n        gradlePluginPortal()\n        mavenCentral()\n        google()\n    }\n}\n\n" + content;
+        }
+        Files.writeString(settingsFile.toPath(), newContent, StandardCharsets.UTF_8);
+        if (logBuilder != null) {
+            logBuilder.append("✓ 已添加本地插件仓库到 ").append(settingsFile.getName()).append("\n");
+        }
+    }
+
+    /**
+     * 在根构建脚本的 plugins { } 中声明插件（已声明时更新版本号）；没有 plugins { } 时在 buildscript { } 之后（或文件开头）新建
+     */
+    private static void declarePluginVersion(File projectDir, StringBuilder logBuilder) throws IOException {
+        String version = loadManifest(PLUGIN_REPO_ROOT).getProperty(MANIFEST_VERSION);
+        File rootBuildGradleKts = new File(projectDir, "build.gradle.kts");
+        File rootBuildGradle = rootBuildGradleKts.exists() ? rootBuildGradleKts : new File(projectDir, "build.gradle");
+        boolean kts = rootBuildGradle == rootBuildGradleKts;
+        String content = rootBuildGradle.exists() ? Files.readString(rootBuildGradle.toPath(), StandardCharsets.UTF_8) : "";
+
+        String newContent;
+        Matcher declared = PLUGIN_DECLARATION.matcher(content);
+        if (declared.find()) {
+            if (declared.group(2).equals(version)) {
+                if (logBuilder != null) {
+                    logBuilder.append("✓ ").append(rootBuildGradle.getName()).append(" 中已声明插件 ").append(version).append("\n");
+                }
+                return;
+            }
+            newContent = content.substring(0, declared.start(2)) + version + content.substring(declared.end(2));
+        } else {
+            String declaration = kts
+                    ? "id(\"" + PLUGIN_ID + "\") version \"" + version + "\""
+                    : "id '" + PLUGIN_ID + "' version '" + version + "'";
+            Matcher plugins = Pattern.compile("(?m)^plugins\\s*\\{").matcher(content);
+            if (plugins.find()) {
+                newContent = content.substring(0, plugins.end()) + "\n    " + declaration + content.substring(plugins.end());
+            } else {
+                // plugins { } 只能在 buildscript { } 之后
+                Matcher buildscript = Pattern.compile("(?m)^buildscript\\s*\\{").matcher(content);
+                int insertAt = buildscript.find() ? findBlockEnd(content, buildscript.end() - 1) + 1 : 0;
+                String block = "plugins {\n    " + declaration + "\n}\n";
+                newContent = insertAt == 0
+                        ? block + "\n" + content
+                        : content.substring(0, insertAt) + "\n\n" + block.stripTrailing() + content.substring(insertAt);
+            }
+        }
+        Files.writeString(rootBuildGradle.toPath(), newContent, StandardCharsets.UTF_8);
+        if (logBuilder != null) {
+            logBuilder.append("✓ 已在 ").append(rootBuildGradle.getName()).append(" 中声明插件 ").append(version).append("\n");
+        }
+    }
+
+    /**
+     * @param openBrace 左花括号的位置
+     * @return 与之匹配的右花括号位置（不区分字符串与注释中的花括号，构建脚本的块结构足够简单），找不到时返回文件末尾
+     */
+    static int findBlockEnd(String content, int openBrace) {
+        int depth = 0;
+        for (int i = openBrace; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return content.length() - 1;
+    }
+
+    /**
+     * 已部署的插件代码或预编译插件仓库是否与当前插件内置的版本不同。
+     * 只检查由本插件部署（目录中有模板清单副本）的目录，手动维护的插件代码不会被覆盖
+     *
+     * @param projectDir 项目根目录
+     */
+    public static boolean isTemplateOutdated(File projectDir) {
+        return isOutdated(new File(projectDir, PLUGIN_REPO_DIR), PLUGIN_REPO_ROOT)
+                || isOutdated(getPluginDirectory(projectDir), TEMPLATE_ROOT);
+    }
+
+    /**
+     * 将已部署的插件代码 / 预编译插件仓库更新为当前插件内置的版本（只重写内容不同的文件），
+     * 预编译插件同时更新根构建脚本中 plugins { } 声明的版本号
+     *
+     * @param projectDir 项目根目录
+     * @param logBuilder 日志收集器（可选）
+     * @return true 如果更新成功
+     */
+    public static boolean syncTemplates(File projectDir, StringBuilder logBuilder) {
+        try {
+            File repoDir = new File(projectDir, PLUGIN_REPO_DIR);
+            if (isOutdated(repoDir, PLUGIN_REPO_ROOT)) {
+                deployTemplates(PLUGIN_REPO_ROOT, repoDir, logBuilder);
+                declarePluginVersion(projectDir, logBuilder);
+            }
+            File pluginDir = getPluginDirectory(projectDir);
+            if (isOutdated(pluginDir, TEMPLATE_ROOT)) {
+                deployTemplates(TEMPLATE_ROOT, pluginDir, logBuilder);
+            }
+            return true;
+        } catch (IOException e) {
+            if (logBuilder != null) {
+                logBuilder.append("✗ 更新插件代码失败: ").append(e.getMessage()).append("\n");
+            }
+            return false;
+        }
+    }
+
+    private static boolean isOutdated(File deployDir, String resourceRoot) {
+        File deployed = new File(deployDir, DEPLOYED_MANIFEST);
+        if (!deployed.isFile()) {
+            return false;
+        }
+        try {
+            return !loadProperties(deployed.toPath()).equals(loadManifest(resourceRoot));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 按模板清单（manifest.properties：版本号与每个文件的 SHA-256，构建 studio-plugin 时生成）部署插件代码或预编译插件仓库：
+     * - 目标文件内容的哈希与清单一致时跳过，不修改文件，用户项目的 buildSrc 不会因此重新编译
+     * - 已有的 build.gradle 不是上次部署的内容（用户维护）时保留
+     * - 上次部署过、当前版本已移除且未被修改的文件会被删除
+     * - 部署完成后将清单副本写入插件目录，用于判断已部署的版本
+     *
+     * @return 重写或删除的文件数
+     */
+    private static int deployTemplates(String resourceRoot, File pluginDir, StringBuilder logBuilder) throws IOException {
+        Properties manifest = loadManifest(resourceRoot);
+        File deployedFile = new File(pluginDir, DEPLOYED_MANIFEST);
+        Properties deployed = deployedFile.isFile() ? loadProperties(deployedFile.toPath()) : new Properties();
+        if (logBuilder != null) {
+            logBuilder.append("部署插件代码: 版本 ").append(manifest.getProperty(MANIFEST_VERSION))
+                    .append("（已部署: ").append(deployed.getProperty(MANIFEST_VERSION, "无")).append("）\n");
+        }
+
+        int written = 0;
+        int skipped = 0;
+        for (String path : new TreeSet<>(manifest.stringPropertyNames())) {
+            if (path.equals(MANIFEST_VERSION)) continue;
+            File target = new File(pluginDir, path);
+            String current = target.isFile() ? sha256(Files.readAllBytes(target.toPath())) : null;
+            if (manifest.getProperty(path).equals(current)) {
+                skipped++;
+                continue;
+            }
+            // 插件目录的 build.gradle 可能由用户维护（如 buildSrc 中已有其他依赖），不是上次部署的内容时保留
+            if (current != null && path.equals("build.gradle") && !current.equals(deployed.getProperty(path))) {
+                skipped++;
+                if (logBuilder != null) {
+                    logBuilder.append("  - build.gradle 已存在且不是插件部署的版本，保留（需要包含 POI 编译依赖（compileOnly）与插件注册）\n");
+                }
+                continue;
+            }
+            try (InputStream in = GradlePluginHelper.class.getResourceAsStream(resourceRoot + path)) {
+                if (in == null) {
+                    throw new IOException("资源文件不存在: " + resourceRoot + path);
+                }
+                Files.createDirectories(target.getParentFile().toPath());
+                Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            written++;
+            if (logBuilder != null) {
+                logBuilder.append("  ✓ 已写入: ").append(path).append("\n");
+            }
+        }
+
+        for (String path : new TreeSet<>(deployed.stringPropertyNames())) {
+            if (path.equals(MANIFEST_VERSION) || manifest.containsKey(path)) continue;
+            File target = new File(pluginDir, path);
+            if (!target.isFile()) continue;
+            if (deployed.getProperty(path).equals(sha256(Files.readAllBytes(target.toPath())))) {
+                Files.delete(target.toPath());
+                written++;
+                if (logBuilder != null) {
+                    logBuilder.append("  ✓ 已删除旧版本文件: ").append(path).append("\n");
+                }
+            } else if (logBuilder != null) {
+                logBuilder.append("  - 旧版本文件已被修改，保留: ").append(path).append("\n");
+            }
+        }
+
+        if (!manifest.equals(deployed)) {
+            try (InputStream in = GradlePluginHelper.class.getResourceAsStream(resourceRoot + TEMPLATE_MANIFEST)) {
+                Files.copy(in, deployedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (logBuilder != null) {
+            logBuilder.append("  写入/删除: ").append(written).append(" 个文件，未变化: ").append(skipped).append(" 个文件\n");
+        }
+        return written;
+    }
+
+    private static Properties loadManifest(String resourceRoot) throws IOException {
+        try (InputStream in = GradlePluginHelper.class.getResourceAsStream(resourceRoot + TEMPLATE_MANIFEST)) {
+            if (in == null) {
+                throw new IOException("模板清单不存在: " + resourceRoot + TEMPLATE_MANIFEST + "，请确保插件 JAR 中包含资源文件");
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return properties;
+        }
+    }
+
+    private static Properties loadProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     /**
      * 检查文件是否包含插件引用
      */
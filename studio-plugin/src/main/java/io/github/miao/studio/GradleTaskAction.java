@@ -16,8 +16,10 @@ import org.gradle.tooling.ProjectConnection;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * GradleTaskAction is an abstract base class for actions that execute Gradle tasks.
@@ -61,12 +63,33 @@ public abstract class GradleTaskAction extends AnAction {
         runGradle(project, taskPath, Collections.emptyList());
     }
 
+    /**
+     * 执行导出 / 导入：默认在 IDE 进程内直接调用引擎（不启动 Gradle，见 {@link InProcessEngineRunner}），
+     * 设置 -Dmultilingual.inProcess=false 或引擎不可用时通过 Gradle Tooling API 执行任务。
+     * 多个任务（多个模块）通过 Gradle 执行时放在同一次构建中并行执行，只配置一次项目
+     */
+    protected void runTasks(Project project, List<String> tasks, List<String> extraArgs) {
+        Consumer<List<String>> gradle = gradleTasks -> {
+            List<String> gradleArgs = new ArrayList<>(extraArgs);
+            if (gradleTasks.size() > 1) {
+                gradleArgs.add("--parallel");
+            }
+            runGradle(project, String.join(" ", gradleTasks), gradleArgs);
+        };
+        String basePath = project.getBasePath();
+        if (basePath != null && new File(basePath).isDirectory() && InProcessEngineRunner.supports(tasks)) {
+            InProcessEngineRunner.run(project, new File(basePath), tasks, extraArgs, gradle);
+            return;
+        }
+        gradle.accept(tasks);
+    }
+
     /**
      * Executes a Gradle task using the Gradle Tooling API.
      * This approach doesn't require the Gradle plugin dependency.
      *
      * @param project The current IntelliJ project
-     * @param task The Gradle task path to execute
+     * @param task The Gradle task path(s) to execute, separated by spaces
      */
     protected void runGradle(Project project, String task, List<String> extraArgs) {
         String basePath = project.getBasePath();
@@ -91,61 +114,12 @@ public abstract class GradleTaskAction extends AnAction {
             return;
         }
         
-        // 检查插件是否已应用，如果未应用则自动应用
-        if (!GradlePluginHelper.isPluginApplied(projectDir)) {
-            // 显示进度通知
-            Notifications.Bus.notify(new Notification(
-                "多语言助手",
-                "多语言助手",
-                "检测到插件未应用，正在自动配置插件代码...",
-                NotificationType.INFORMATION
-            ));
-            
-            // 创建详细的日志收集器
-            StringBuilder logBuilder = new StringBuilder();
-            boolean applied = GradlePluginHelper.autoApplyPlugin(projectDir, logBuilder);
-            
-            if (applied) {
-                // 获取实际的插件目录路径
-                File buildSrcDir = new File(projectDir, "buildSrc");
-                File gradlePluginsDir = new File(projectDir, "gradle/plugins/multilingual-plugin");
-                String pluginDir;
-                if (buildSrcDir.exists()) {
-                    pluginDir = buildSrcDir.getAbsolutePath();
-                } else {
-                    pluginDir = gradlePluginsDir.getAbsolutePath();
-                }
-                
-                String message = "✓ 已自动应用多语言 Gradle 插件到项目\n" +
-                    "插件代码位置: " + pluginDir + "\n" +
-                    "请执行: File -> Sync Project with Gradle Files\n" +
-                    "然后重新运行任务。\n\n" +
-                    "详细日志:\n" + logBuilder.toString();
-                
-                Notifications.Bus.notify(new Notification(
-                    "多语言助手",
-                    "多语言助手",
-                    message,
-                    NotificationType.INFORMATION
-                ));
-            } else {
-                String errorMessage = "✗ 自动配置失败\n" +
-                    "请检查项目权限或手动配置插件。\n\n" +
-                    "详细日志:\n" + logBuilder.toString();
-                
-                Notifications.Bus.notify(new Notification(
-                    "多语言助手",
-                    "多语言助手",
-                    errorMessage,
-                    NotificationType.WARNING
-                ));
-            }
-        }
-
         // Execute Gradle task in background with progress indicator
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Running Gradle Task: " + task, true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Checking multilingual plugin");
+                ensurePluginApplied(project, projectDir);
                 indicator.setText("Executing " + task);
                 ProjectConnection connection = null;
                 ClassLoader originalClassLoader = null;
@@ -296,6 +270,71 @@ public abstract class GradleTaskAction extends AnAction {
         });
     }
     
+    /**
+     * 检查插件是否已应用，如果未应用则自动应用。
+     * 检测结果按项目缓存（见 {@link PluginDetectionCache}），需要读取文件，在后台线程调用
+     */
+    private void ensurePluginApplied(Project project, File projectDir) {
+        if (PluginDetectionCache.getInstance(project).isPluginApplied(projectDir)) {
+            // 已部署的插件代码与当前插件版本不同时，只更新内容变化的文件
+            if (GradlePluginHelper.isTemplateOutdated(projectDir)) {
+                StringBuilder logBuilder = new StringBuilder();
+                boolean synced = GradlePluginHelper.syncTemplates(projectDir, logBuilder);
+                Notifications.Bus.notify(new Notification(
+                    "多语言助手",
+                    "多语言助手",
+                    (synced ? "✓ 已更新项目中的多语言插件代码\n" : "✗ 更新插件代码失败\n") +
+                        "详细日志:\n" + logBuilder,
+                    synced ? NotificationType.INFORMATION : NotificationType.WARNING
+                ));
+            }
+            return;
+        }
+        
+        // 显示进度通知
+        Notifications.Bus.notify(new Notification(
+            "多语言助手",
+            "多语言助手",
+            "检测到插件未应用，正在自动配置插件代码...",
+            NotificationType.INFORMATION
+        ));
+        
+        // 创建详细的日志收集器
+        StringBuilder logBuilder = new StringBuilder();
+        boolean applied = GradlePluginHelper.autoApplyPlugin(projectDir, logBuilder);
+        // 自动配置通过 java.io 写文件，VFS 刷新前不会收到变化事件
+        PluginDetectionCache.getInstance(project).invalidate();
+        
+        if (applied) {
+            // 获取实际的插件目录路径（预编译插件仓库或插件源码目录）
+            String pluginDir = GradlePluginHelper.getInstallationDirectory(projectDir).getAbsolutePath();
+            
+            String message = "✓ 已自动应用多语言 Gradle 插件到项目\n" +
+                "插件代码位置: " + pluginDir + "\n" +
+                "请执行: File -> Sync Project with Gradle Files\n" +
+                "然后重新运行任务。\n\n" +
+                "详细日志:\n" + logBuilder.toString();
+            
+            Notifications.Bus.notify(new Notification(
+                "多语言助手",
+                "多语言助手",
+                message,
+                NotificationType.INFORMATION
+            ));
+        } else {
+            String errorMessage = "✗ 自动配置失败\n" +
+                "请检查项目权限或手动配置插件。\n\n" +
+                "详细日志:\n" + logBuilder.toString();
+            
+            Notifications.Bus.notify(new Notification(
+                "多语言助手",
+                "多语言助手",
+                errorMessage,
+                NotificationType.WARNING
+            ));
+        }
+    }
+    
     /**
      * 过滤 Gradle 输出，只保留关键信息，过滤掉构建过程和警告
      */
@@ -0,0 +1,159 @@
+package io.github.miao.studio;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import io.github.miao.MultilingualExportEngine;
+import io.github.miao.MultilingualImportEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * 在 IDE 进程内直接调用导出 / 导入引擎（与 Gradle 任务共用 buildSrc 中的实现），
+ * 不启动 Gradle 守护进程、不配置项目，在后台线程执行。
+ * 设置 -Dmultilingual.inProcess=false 时始终通过 Gradle 执行。
+ */
+public final class InProcessEngineRunner {
+    private static final String GROUP = "多语言助手";
+
+    private InProcessEngineRunner() {
+    }
+
+    /**
+     * @return 是否可以进程内执行这些任务（只支持 :&lt;模块&gt;:generateExcel 与 :&lt;模块&gt;:generateTranslations）
+     */
+    public static boolean supports(List<String> tasks) {
+        if (!Boolean.parseBoolean(System.getProperty("multilingual.inProcess", "true"))) return false;
+        return tasks.stream().allMatch(task -> task.endsWith(":generateExcel") || task.endsWith(":generateTranslations"));
+    }
+
+    /**
+     * 在后台线程执行任务；多个模块的任务并行执行（各模块读写各自的 res 目录，互不影响），
+     * 结果按任务顺序汇总到一条通知中。引擎类无法加载时（如插件包不完整），只将这些模块的任务交给 fallback 通过 Gradle 执行，
+     * 已在进程内完成的模块不会重复执行
+     * @param tasks Gradle 任务路径（如 :app:generateExcel、:feature:home:generateExcel），用于确定模块与引擎
+     * @param args -Pname=value 形式的参数，与 Gradle 执行时相同，所有模块共用
+     */
+    public static void run(Project project, File projectDir, List<String> tasks, List<String> args, Consumer<List<String>> fallback) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("-P")) continue;
+            int eq = arg.indexOf('=');
+            if (eq < 0) options.put(arg.substring(2), "");
+            else options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String title = String.join(" ", tasks);
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Running " + title + " (in-process)", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Executing " + title);
+                long start = System.nanoTime();
+                List<StudioEnvironment> envs = new ArrayList<>();
+                List<Future<RuntimeException>> results = new ArrayList<>();
+                ExecutorService executor = Executors.newFixedThreadPool(
+                        Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+                try {
+                    for (String task : tasks) {
+                        String projectPath = task.substring(0, task.lastIndexOf(':'));
+                        StudioEnvironment env = new StudioEnvironment(project, projectDir, projectPath, options);
+                        envs.add(env);
+                        results.add(executor.submit(() -> runEngine(task, env)));
+                    }
+                    List<String> completedTasks = new ArrayList<>();
+                    List<StudioEnvironment> completedEnvs = new ArrayList<>();
+                    List<RuntimeException> errors = new ArrayList<>();
+                    List<String> fallbackTasks = new ArrayList<>();
+                    for (int t = 0; t < tasks.size(); t++) {
+                        try {
+                            errors.add(results.get(t).get());
+                            completedTasks.add(tasks.get(t));
+                            completedEnvs.add(envs.get(t));
+                        } catch (ExecutionException e) {
+                            if (!(e.getCause() instanceof LinkageError)) throw new IllegalStateException(e.getCause());
+                            fallbackTasks.add(tasks.get(t));
+                        }
+                    }
+                    refresh(projectDir);
+                    if (!completedTasks.isEmpty()) notify(completedTasks, completedEnvs, errors, start);
+                    if (!fallbackTasks.isEmpty()) {
+                        ApplicationManager.getApplication().invokeLater(() -> fallback.accept(fallbackTasks));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        });
+    }
+
+    /**
+     * 执行单个模块的导出 / 导入
+     * @return 执行失败时的异常，成功时为 null；LinkageError 继续抛出，由调用方改为通过 Gradle 执行
+     */
+    private static RuntimeException runEngine(String task, StudioEnvironment env) {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        try {
+            // POI 与 XML 工厂通过上下文类加载器查找实现，切换到插件的类加载器
+            currentThread.setContextClassLoader(InProcessEngineRunner.class.getClassLoader());
+            if (task.endsWith(":generateExcel")) {
+                new MultilingualExportEngine(env).run();
+            } else {
+                new MultilingualImportEngine(env).run();
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        } finally {
+            currentThread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    /**
+     * 刷新 VFS，使编辑器中打开的 strings.xml 与导出文件立即更新
+     */
+    private static void refresh(File projectDir) {
+        var dir = LocalFileSystem.getInstance().findFileByIoFile(projectDir);
+        if (dir != null) dir.refresh(true, true);
+    }
+
+    private static void notify(List<String> tasks, List<StudioEnvironment> envs, List<RuntimeException> errors, long start) {
+        String elapsed = String.format(java.util.Locale.ROOT, "%.1f s", (System.nanoTime() - start) / 1e9);
+        boolean failed = errors.stream().anyMatch(java.util.Objects::nonNull);
+        StringBuilder message = new StringBuilder();
+        for (int t = 0; t < tasks.size(); t++) {
+            RuntimeException error = errors.get(t);
+            if (message.length() > 0) message.append("\n\n");
+            message.append(error == null ? "[SUCCESS] Task: " : "[FAILED] Task: ").append(tasks.get(t));
+            if (error != null) message.append("\n\nError: ").append(error.getMessage());
+            // 只显示最后的关键信息（约50行，多个模块时平分）
+            String[] lines = envs.get(t).getOutput().split("\n");
+            StringBuilder summary = new StringBuilder();
+            for (int i = Math.max(0, lines.length - 50 / tasks.size()); i < lines.length; i++) {
+                if (!lines[i].trim().isEmpty()) summary.append(lines[i]).append('\n');
+            }
+            if (summary.length() > 0) message.append("\n\n").append(summary);
+        }
+        message.append("\n(in-process, ").append(elapsed).append(')');
+        Notifications.Bus.notify(new Notification(GROUP, GROUP, message.toString(),
+                failed ? NotificationType.ERROR : NotificationType.INFORMATION));
+    }
+}
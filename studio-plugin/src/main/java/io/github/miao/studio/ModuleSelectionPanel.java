@@ -0,0 +1,65 @@
+package io.github.miao.studio;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模块选择面板：列出应用了多语言插件的 Android 模块，可多选（默认选中 :app，没有 :app 时选中第一个模块）
+ */
+public class ModuleSelectionPanel extends JPanel {
+    private final List<JCheckBox> checkBoxes = new ArrayList<>();
+
+    /**
+     * 为对话框创建模块选择面板：优先使用缓存的模块列表；缓存失效（构建脚本或 settings 变化后）时，
+     * 在模态进度中于后台线程读取 settings 与模块构建脚本，不在 EDT 上读取文件
+     */
+    public static ModuleSelectionPanel create(@Nullable Project project) {
+        File baseDir = project != null && project.getBasePath() != null ? new File(project.getBasePath()) : null;
+        if (baseDir == null) return new ModuleSelectionPanel(List.of(":app"));
+        PluginDetectionCache cache = PluginDetectionCache.getInstance(project);
+        List<String> modules = cache.getCachedModules();
+        if (modules == null) {
+            modules = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> cache.getModules(baseDir), "正在查找多语言模块...", false, project);
+        }
+        return new ModuleSelectionPanel(modules);
+    }
+
+    public ModuleSelectionPanel(List<String> modules) {
+        super(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        add(new JLabel("模块（可多选，多个模块在同一次执行中处理）:"), BorderLayout.NORTH);
+
+        JPanel list = new JPanel(new GridLayout(0, 4, 10, 0));
+        String defaultModule = modules.contains(":app") ? ":app" : modules.get(0);
+        for (String module : modules) {
+            JCheckBox checkBox = new JCheckBox(module, module.equals(defaultModule));
+            checkBoxes.add(checkBox);
+            list.add(checkBox);
+        }
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        // 模块较多时最多显示 4 行，其余滚动查看
+        int rows = Math.min(4, (modules.size() + 3) / 4);
+        scrollPane.setPreferredSize(new Dimension(600, rows * checkBoxes.get(0).getPreferredSize().height + 4));
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * @return 选中模块的 Gradle 路径（如 :app、:library），按列表顺序
+     */
+    public List<String> getSelectedModules() {
+        List<String> selected = new ArrayList<>();
+        for (JCheckBox checkBox : checkBoxes) {
+            if (checkBox.isSelected()) selected.add(checkBox.getText());
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.miao.studio;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按项目缓存插件检测结果（{@link GradlePluginHelper#isPluginApplied}）与模块列表（{@link GradleModuleHelper#findMultilingualModules}），
+ * 避免每次执行动作、打开对话框都读取完整的构建脚本；
+ * 检测读取的文件（构建脚本、settings、插件目录）在 VFS 中发生变化时清除缓存，下次使用时重新检测
+ */
+@Service
+public final class PluginDetectionCache implements Disposable {
+    private final Project project;
+    private final List<String> detectionPaths = GradlePluginHelper.getDetectionPaths();
+    // 每次失效递增，检测期间发生变化时不写入过期结果
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Boolean applied;
+    private volatile List<String> modules;
+
+    public PluginDetectionCache(Project project) {
+        this.project = project;
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (affectsDetection(event)) {
+                        invalidate();
+                        return;
+                    }
+                    if (isBuildScript(event.getPath())) {
+                        modules = null;
+                    }
+                }
+            }
+        });
+    }
+
+    public static PluginDetectionCache getInstance(Project project) {
+        return project.getService(PluginDetectionCache.class);
+    }
+
+    /**
+     * 返回缓存的检测结果，没有缓存时读取文件检测；会读取文件，不应在 EDT 上调用
+     */
+    public boolean isPluginApplied(File projectDir) {
+        Boolean cached = applied;
+        if (cached != null) {
+            return cached;
+        }
+        long current = generation.get();
+        boolean result = GradlePluginHelper.isPluginApplied(projectDir);
+        synchronized (this) {
+            if (generation.get() == current) {
+                applied = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return 缓存的模块列表，没有缓存时返回 null（不读取文件，可在 EDT 上调用）
+     */
+    public List<String> getCachedModules() {
+        return modules;
+    }
+
+    /**
+     * 返回缓存的模块列表，没有缓存时读取 settings 与模块构建脚本；任一构建脚本变化时重新查找。会读取文件，不应在 EDT 上调用
+     */
+    public List<String> getModules(File projectDir) {
+        List<String> cached = modules;
+        if (cached == null) {
+            cached = GradleModuleHelper.findMultilingualModules(projectDir);
+            modules = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * 清除缓存；通过 java.io 直接修改文件（如自动配置插件）后需要调用，VFS 刷新前不会收到变化事件
+     */
+    public void invalidate() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            applied = null;
+            modules = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private boolean affectsDetection(VFileEvent event) {
+        if (affectsDetection(event.getPath())) return true;
+        if (event instanceof VFileMoveEvent move) return affectsDetection(move.getOldPath());
+        if (event instanceof VFilePropertyChangeEvent change && change.isRename()) return affectsDetection(change.getOldPath());
+        return false;
+    }
+
+    private static boolean isBuildScript(String path) {
+        return path.endsWith("/build.gradle") || path.endsWith("/build.gradle.kts")
+                || path.endsWith("/settings.gradle") || path.endsWith("/settings.gradle.kts");
+    }
+
+    /**
+     * 路径是检测文件本身，或是检测文件的上级目录（目录被创建、删除或重命名）
+     */
+    private boolean affectsDetection(String path) {
+        String basePath = project.getBasePath();
+        if (basePath == null || !path.startsWith(basePath + "/")) return false;
+        String relative = path.substring(basePath.length() + 1);
+        for (String detectionPath : detectionPaths) {
+            if (detectionPath.equals(relative) || detectionPath.startsWith(relative + "/")) return true;
+        }
+        return false;
+    }
+}
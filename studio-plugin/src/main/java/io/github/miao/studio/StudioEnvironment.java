@@ -0,0 +1,215 @@
+package io.github.miao.studio;
+
+import com.intellij.facet.Facet;
+import com.intellij.facet.FacetManager;
+import com.intellij.openapi.externalSystem.util.ExternalSystemApiUtil;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import io.github.miao.MultilingualEnvironment;
+import io.github.miao.MultilingualException;
+import io.github.miao.MultilingualLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内执行导出 / 导入时的引擎运行环境：
+ * - 参数优先级与 Gradle 执行时一致：对话框参数（与 -P 参数同名）> 根构建脚本中 multilingual { } 的配置项 > 模块构建脚本中的配置项
+ * - 模块目录与 Facet 按 Gradle 项目路径匹配：取 IDE 同步得到的外部项目数据（ExternalSystem），未同步时按 Gradle 默认布局（:feature:home -> feature/home）
+ * - res 目录来自模块的 Android Facet（通过反射读取，IDE 未安装 Android 插件时按 src/&lt;源集&gt;/res 查找）
+ * - 日志按行收集，执行结束后显示在通知中
+ */
+public class StudioEnvironment implements MultilingualEnvironment {
+    // 构建脚本中的配置项：key = 'value'、key 'value'、key.set("value")
+    private static final Pattern SCRIPT_OPTION = Pattern.compile(
+            "\\b(excelFilePath|defaultLanguage|baselineDir|exportDir|exportFilePattern|exportLineDir|exportSheetRule)"
+                    + "\\b\\s*(?:=|\\.set\\(|\\s)\\s*['\"]([^'\"]*)['\"]");
+    private static final Pattern EXTENSION_BLOCK = Pattern.compile("\\bmultilingual\\s*\\{");
+
+    private final Project project;
+    private final File rootDir;
+    private final String projectPath;
+    private final File moduleDir;
+    private final Map<String, String> options;
+    private final Map<String, String> scriptOptions;
+    private final StringBuilder output = new StringBuilder();
+    private final MultilingualLog log = new MultilingualLog() {
+        @Override
+        public void lifecycle(String format, Object... args) {
+            append(MultilingualLog.format(format, args));
+        }
+
+        @Override
+        public void warn(String format, Object... args) {
+            append(MultilingualLog.format(format, args));
+        }
+
+        @Override
+        public void error(String format, Object... args) {
+            append(MultilingualLog.format(format, args));
+        }
+    };
+
+    /**
+     * @param projectPath Gradle 项目路径（如 :app、:feature:home）
+     * @param options 对话框参数，参数名与 -P 参数相同
+     */
+    public StudioEnvironment(Project project, File rootDir, String projectPath, Map<String, String> options) {
+        this.project = project;
+        this.rootDir = rootDir;
+        this.projectPath = projectPath;
+        this.moduleDir = findModuleDir(project, rootDir, projectPath);
+        this.options = options;
+        this.scriptOptions = readScriptOptions(rootDir, moduleDir);
+    }
+
+    @Override
+    public String getProperty(String name) {
+        String value = options.get(name);
+        if (value != null && !value.isBlank()) return value;
+        String scriptValue = scriptOptions.get(name);
+        return scriptValue != null ? scriptValue : value;
+    }
+
+    @Override
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    @Override
+    public File getBuildDir() {
+        return new File(moduleDir, "build");
+    }
+
+    @Override
+    public String getProjectPath() {
+        return projectPath;
+    }
+
+    @Override
+    public List<File> findResDirectories() {
+        Set<File> found = new LinkedHashSet<>(findFacetResDirectories());
+        if (found.isEmpty()) {
+            // 未安装 Android 插件或 Facet 尚未同步：main 源集优先，其余源集按名称排序
+            File srcDir = new File(moduleDir, "src");
+            File main = new File(srcDir, "main/res");
+            if (main.isDirectory()) found.add(main);
+            File[] sourceSets = srcDir.listFiles(File::isDirectory);
+            if (sourceSets != null) {
+                java.util.Arrays.sort(sourceSets);
+                for (File sourceSet : sourceSets) {
+                    File res = new File(sourceSet, "res");
+                    if (res.isDirectory()) found.add(res);
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            throw new MultilingualException("无法找到模块 " + projectPath + " 的 res 目录，请在对话框中选择\"项目res目录选择\"字段");
+        }
+        return new ArrayList<>(found);
+    }
+
+    @Override
+    public MultilingualLog getLog() {
+        return log;
+    }
+
+    /**
+     * @return 执行过程中收集的日志
+     */
+    public String getOutput() {
+        synchronized (output) {
+            return output.toString();
+        }
+    }
+
+    private void append(String line) {
+        synchronized (output) {
+            output.append(line).append('\n');
+        }
+    }
+
+    /**
+     * @return Gradle 项目路径对应的模块目录：优先取 IDE 模块的外部项目数据，未同步时按 Gradle 默认布局推算
+     */
+    private static File findModuleDir(Project project, File rootDir, String projectPath) {
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if (!projectPath.equals(ExternalSystemApiUtil.getExternalProjectId(module))) continue;
+            String path = ExternalSystemApiUtil.getExternalProjectPath(module);
+            if (path != null) return new File(path);
+        }
+        return GradleModuleHelper.moduleDir(rootDir, projectPath);
+    }
+
+    /**
+     * @return IDE 模块是否属于当前 Gradle 项目（含 Android 的 main / test 等源集模块，它们的外部项目目录相同）
+     */
+    private boolean belongsToProject(Module module) {
+        String path = ExternalSystemApiUtil.getExternalProjectPath(module);
+        return path != null && FileUtil.filesEqual(new File(path), moduleDir);
+    }
+
+    /**
+     * 通过模块的 Android Facet 读取资源目录（ResourceFolderManager.getFolders()，包含所有源集，main 在前）；
+     * Android 插件类只通过反射访问，插件未安装时返回空列表
+     */
+    private List<File> findFacetResDirectories() {
+        List<File> result = new ArrayList<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            if (!belongsToProject(module)) continue;
+            for (Facet<?> facet : FacetManager.getInstance(module).getAllFacets()) {
+                if (!"android".equals(facet.getTypeId().toString())) continue;
+                try {
+                    Class<?> manager = Class.forName("com.android.tools.idea.res.ResourceFolderManager", true, facet.getClass().getClassLoader());
+                    Object instance = manager.getMethod("getInstance", facet.getClass()).invoke(null, facet);
+                    for (Object folder : (Collection<?>) manager.getMethod("getFolders").invoke(instance)) {
+                        if (folder instanceof VirtualFile vf && vf.isDirectory()) result.add(new File(vf.getPath()));
+                    }
+                } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                    append("[StudioEnvironment] Failed to read res directories from Android facet: " + e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 读取根项目与模块构建脚本中 multilingual { } 的字符串配置项，只匹配块内的内容。
+     * 根脚本优先：Gradle 执行时任务读取根项目的扩展（根项目应用插件时模块的任务也由根扩展配置），模块扩展只作为任务属性
+     */
+    private static Map<String, String> readScriptOptions(File rootDir, File moduleDir) {
+        Map<String, String> result = new java.util.HashMap<>();
+        for (File script : new File[] {
+                new File(rootDir, "build.gradle"), new File(rootDir, "build.gradle.kts"),
+                new File(moduleDir, "build.gradle"), new File(moduleDir, "build.gradle.kts")}) {
+            if (!script.isFile()) continue;
+            String content;
+            try {
+                content = Files.readString(script.toPath(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                continue;
+            }
+            Matcher block = EXTENSION_BLOCK.matcher(content);
+            while (block.find()) {
+                int end = GradlePluginHelper.findBlockEnd(content, block.end() - 1);
+                Matcher m = SCRIPT_OPTION.matcher(content);
+                m.region(block.end(), end);
+                while (m.find()) result.putIfAbsent(m.group(1), m.group(2));
+            }
+        }
+        return result;
+    }
+}